@@ -3,10 +3,14 @@ package ukf.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import ukf.backend.Service.analytics.FleetAnalyticsProperties;
 import ukf.backend.Service.cloud.CloudInboxProperties;
+import ukf.backend.Service.flight.FlightIngestProperties;
+import ukf.backend.Service.flight.FlightPurgeProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(CloudInboxProperties.class)
+@EnableConfigurationProperties({CloudInboxProperties.class, FlightIngestProperties.class, FlightPurgeProperties.class,
+		FleetAnalyticsProperties.class})
 public class BackendApplication {
 
 	public static void main(String[] args) {
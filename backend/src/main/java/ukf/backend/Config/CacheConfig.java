@@ -0,0 +1,19 @@
+package ukf.backend.Config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine cache (spring.cache.*). Mená cache musia byť aj v {@code spring.cache.cache-names},
+ * aby ich Boot vytvoril pri štarte a naviazal na ne metriky.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Flight podľa id – autorizácia a metadáta v každom /api/flights/{id}/… requeste. */
+    public static final String FLIGHTS = "flights";
+
+    /** FlightStatsDto podľa id letu. */
+    public static final String FLIGHT_STATS = "flightStats";
+}
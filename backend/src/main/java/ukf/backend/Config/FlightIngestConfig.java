@@ -0,0 +1,67 @@
+package ukf.backend.Config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ukf.backend.Service.flight.FlightIngestProperties;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class FlightIngestConfig {
+
+    /**
+     * Zdieľaný pool pre parsovanie blokov uploadu (CPU práca) – súbežné uploady sa delia
+     * o rovnaké jadrá namiesto toho, aby si každý spustil vlastné vlákna.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService flightParseExecutor(FlightIngestProperties props) {
+        AtomicInteger n = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "flight-parse-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newFixedThreadPool(props.pipeline().effectiveWorkers(), factory);
+    }
+
+    /**
+     * Pool pre async ingest joby – pevný počet workerov a ohraničená fronta,
+     * plná fronta = {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService flightIngestJobExecutor(FlightIngestProperties props) {
+        FlightIngestProperties.Jobs cfg = props.jobs();
+        AtomicInteger n = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "flight-ingest-job-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ThreadPoolExecutor(
+                cfg.workers(), cfg.workers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cfg.queueCapacity()),
+                factory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Mazanie letov na pozadí – jedno vlákno, aby súbežné purge nebojovali o zámky
+     * na flight_records; fronta je neohraničená (úloha je len id letu).
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService flightPurgeExecutor() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "flight-purge");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package ukf.backend.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Plánované úlohy (@Scheduled) – napr. nočný snapshot fleet analytiky.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,15 +1,45 @@
 package ukf.backend.Config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    public static final MediaType APPLICATION_MSGPACK = MediaType.parseMediaType("application/msgpack");
+    public static final MediaType APPLICATION_X_MSGPACK = MediaType.parseMediaType("application/x-msgpack");
+
+    private final ObjectMapper objectMapper;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/avatars/**")
                 .addResourceLocations("file:uploads/avatars/");
     }
+
+    /**
+     * CBOR a MessagePack na konci zoznamu – JSON ostáva default (aj pre {@code Accept: *}{@code /*}),
+     * binárny formát dostane len klient, ktorý si ho výslovne vyžiada.
+     * Oba používajú kópiu Boot ObjectMappera, takže polia/dátumy sú rovnaké ako v JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+        converters.add(new AbstractJackson2HttpMessageConverter(
+                objectMapper.copyWith(new MessagePackFactory()), APPLICATION_MSGPACK, APPLICATION_X_MSGPACK) {
+        });
+    }
 }
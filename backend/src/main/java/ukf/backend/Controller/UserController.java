@@ -21,8 +21,14 @@ import ukf.backend.Model.User.User;
 import ukf.backend.Model.User.UserRepository;
 import ukf.backend.Repository.flight.FlightRepository;
 import ukf.backend.Security.JwtService;
+import ukf.backend.Service.user.UserAnalyticsService;
+import ukf.backend.Service.user.UserPurgeJob;
+import ukf.backend.Service.user.UserPurgeService;
 import ukf.backend.dtos.UpdateUserDTO;
+import ukf.backend.dtos.UserAnalyticsDTO;
+import ukf.backend.dtos.UserPurgeJobDto;
 
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -43,6 +49,8 @@ public class UserController {
     @Autowired private JwtService       jwtService;
 
     @Autowired private AuditLogService  auditLogService;
+    @Autowired private UserPurgeService userPurgeService;
+    @Autowired private UserAnalyticsService userAnalyticsService;
 
     private boolean isAdmin(Authentication auth) {
         return auth.getAuthorities().stream()
@@ -70,7 +78,7 @@ public class UserController {
     public List<User> listAllUsers(HttpServletRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         auditLogService.log(auth, "ADMIN_LIST_USERS", null, request, null);
-        return userRepository.findAll();
+        return userRepository.findAllByDeletedAtIsNull();
     }
 
     @GetMapping("/{id}")
@@ -86,6 +94,7 @@ public class UserController {
         auditLogService.log(auth, "USER_READ_PROFILE", id, request, null);
 
         return userRepository.findById(id)
+                .filter(u -> u.getDeletedAt() == null)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -112,13 +121,17 @@ public class UserController {
                 .body(img);
     }
 
+    /**
+     * Používateľ hneď zmizne, jeho lety/záznamy/zariadenia sa mažú na pozadí.
+     * 202 + Location na stav purge jobu.
+     */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<UserPurgeJobDto> deleteUser(@PathVariable Long id, HttpServletRequest request) {
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        Optional<User> opt = userRepository.findById(id);
+        Optional<User> opt = userRepository.findById(id).filter(u -> u.getDeletedAt() == null);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
 
         User user = opt.get();
@@ -132,8 +145,35 @@ public class UserController {
             catch (Exception ignored) {}
         }
 
-        userRepository.delete(user);
-        return ResponseEntity.noContent().build();
+        UserPurgeJob job = userPurgeService.submit(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/purge-jobs/" + job.getId()))
+                .body(UserPurgeJobDto.from(job));
+    }
+
+    /** Súhrn letov používateľa (predpočítaný, bez čítania záznamov). */
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<UserAnalyticsDTO> getUserAnalytics(@PathVariable Long id) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (!isAdmin(auth) && !isSelf(auth, id)) return ResponseEntity.status(403).build();
+
+        if (userRepository.findById(id).filter(u -> u.getDeletedAt() == null).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(userAnalyticsService.getForUser(id));
+    }
+
+    /** Analytika všetkých používateľov s letmi (userId → súhrn) – pre admin zoznam. */
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<Long, UserAnalyticsDTO> getAllUserAnalytics() {
+        return userAnalyticsService.getAll();
+    }
+
+    @GetMapping("/purge-jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserPurgeJobDto> getPurgeJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(UserPurgeJobDto.from(userPurgeService.getJob(jobId)));
     }
 
     @PutMapping("/{id}")
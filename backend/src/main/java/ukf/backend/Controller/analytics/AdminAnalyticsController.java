@@ -0,0 +1,28 @@
+package ukf.backend.Controller.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import ukf.backend.Service.analytics.FleetAnalyticsService;
+import ukf.backend.dtos.analytics.FleetAnalyticsDto;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAnalyticsController {
+
+    private final FleetAnalyticsService fleetAnalyticsService;
+
+    /** Posledný (nočný) snapshot fleet analytiky. */
+    @GetMapping("/fleet")
+    public FleetAnalyticsDto fleet() {
+        return fleetAnalyticsService.getSnapshot();
+    }
+
+    /** Prepočet snapshotu hneď (napr. po hromadnom importe). */
+    @PostMapping("/fleet/refresh")
+    public FleetAnalyticsDto refreshFleet() {
+        return fleetAnalyticsService.refresh();
+    }
+}
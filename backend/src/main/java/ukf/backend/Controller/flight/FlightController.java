@@ -1,22 +1,43 @@
 package ukf.backend.Controller.flight;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ukf.backend.Config.WebConfig;
 import ukf.backend.Model.User.User;
 import ukf.backend.Model.User.UserService;
 import ukf.backend.Model.flight.Flight;
 import ukf.backend.Model.flight.FlightRecord;
+import ukf.backend.Service.flight.FlightIngestJob;
+import ukf.backend.Service.flight.FlightIngestJobService;
 import ukf.backend.Service.flight.FlightService;
 import ukf.backend.dtos.flight.FlightDto;
+import ukf.backend.dtos.flight.FlightIngestJobDto;
 import ukf.backend.dtos.flight.FlightIngestResultDto;
+import ukf.backend.dtos.flight.FlightPageDto;
+import ukf.backend.dtos.flight.FlightRecordColumnsDto;
+import ukf.backend.dtos.flight.FlightRecordPageDto;
+import ukf.backend.dtos.flight.FlightRollupsDto;
+import ukf.backend.dtos.flight.FlightSeriesDto;
 import ukf.backend.dtos.FlightStatsDto;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/flights")
@@ -24,8 +45,13 @@ import java.util.List;
 public class FlightController {
 
     private final FlightService flightService;
+    private final FlightIngestJobService ingestJobService;
     private final UserService userService;
 
+    // dáta letu sú po ingeste nemenné – klient si ich drží, ale vždy revaliduje (ETag → 304),
+    // aby po zmazaní letu nezobrazil staré dáta
+    private static final CacheControl FLIGHT_CACHE = CacheControl.noCache().cachePrivate();
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<FlightIngestResultDto> upload(@RequestPart("file") MultipartFile file,
@@ -38,6 +64,55 @@ public class FlightController {
                 .body(FlightIngestResultDto.from(report));
     }
 
+    /**
+     * Streamovaný upload: súbor ide priamo ako telo requestu (nie multipart), meno v {@code ?name=}.
+     * Telo sa odloží do spool adresára a parsuje sa až po prijatí celého. Podporuje Content-Encoding: gzip / zstd.
+     */
+    @PostMapping(path = "/raw", consumes = {
+            MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.TEXT_PLAIN_VALUE, "text/csv",
+            "application/gzip", "application/x-gzip", "application/zstd"
+    })
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightIngestResultDto> uploadRaw(@RequestParam("name") String name,
+                                                           HttpServletRequest request,
+                                                           Principal principal) throws IOException {
+        User current = userService.getByEmail(principal.getName());
+
+        FlightService.IngestReport report = flightService.ingestStreamWithReport(
+                name, request.getContentType(), request.getHeader(HttpHeaders.CONTENT_ENCODING),
+                request.getContentLengthLong(),
+                request.getInputStream(), current);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(FlightIngestResultDto.from(report));
+    }
+
+    /**
+     * Async upload: súbor sa len overí a odloží, parsovanie beží na pozadí.
+     * Stav cez GET /api/flights/jobs/{jobId} (Location header).
+     */
+    @PostMapping(path = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightIngestJobDto> uploadAsync(@RequestPart("file") MultipartFile file,
+                                                          Principal principal) throws IOException {
+        User current = userService.getByEmail(principal.getName());
+
+        FlightIngestJob job = ingestJobService.submit(file, current);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/flights/jobs/" + job.getId()))
+                .body(FlightIngestJobDto.from(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightIngestJobDto> getIngestJob(@PathVariable String jobId,
+                                                           Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        FlightIngestJob job = ingestJobService.getJob(jobId, current);
+        return ResponseEntity.ok(FlightIngestJobDto.from(job));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public List<FlightDto> listMyFlights(Principal principal) {
@@ -48,13 +123,34 @@ public class FlightController {
                 .toList();
     }
 
+    /**
+     * Stránkovaný zoznam letov (najnovšie prvé): filtre {@code from}/{@code to} (dátum začiatku letu,
+     * vrátane), {@code name} (prefix), {@code minDistance} (km); ďalšia stránka cez {@code cursor}.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightPageDto> listMyFlightsPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Double minDistance,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_FLIGHT_PAGE_LIMIT) int limit,
+            Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        return ResponseEntity.ok(flightService.getFlightPage(current.getId(), from, to, name, minDistance, cursor, limit));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<FlightDto> getFlight(@PathVariable Long id,
+                                               ServletWebRequest request,
                                                Principal principal) {
         User current = userService.getByEmail(principal.getName());
         Flight flight = flightService.getFlight(id, current);
-        return ResponseEntity.ok(FlightDto.from(flight));
+        String etag = etag(flight, "flight", request);
+        if (notModified(request, etag)) return null;
+        return cached(etag).body(FlightDto.from(flight));
     }
 
     @DeleteMapping("/{id}")
@@ -66,23 +162,186 @@ public class FlightController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Všetky záznamy ako pole objektov. Formát podľa Accept: JSON (default),
+     * {@code application/cbor}, {@code application/x-msgpack}.
+     */
     @GetMapping("/{id}/records")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<List<FlightRecord>> getFlightRecords(@PathVariable Long id,
+                                                               ServletWebRequest request,
                                                                Principal principal) {
         User current = userService.getByEmail(principal.getName());
-        flightService.getFlight(id, current); // validácia vlastníka/ADMIN
+        Flight flight = flightService.getFlight(id, current); // validácia vlastníka/ADMIN
+        String etag = etag(flight, "records", request);
+        if (notModified(request, etag)) return null;
         List<FlightRecord> records = flightService.getRecords(id);
-        return ResponseEntity.ok(records);
+        return cached(etag).body(records);
+    }
+
+    /**
+     * Všetky záznamy po stĺpcoch (pole na kanál + pole časov) – najmenšia odpoveď pre veľké lety,
+     * hlavne s {@code Accept: application/cbor} alebo {@code application/x-msgpack}.
+     */
+    @GetMapping("/{id}/records/columns")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightRecordColumnsDto> getFlightRecordColumns(@PathVariable Long id,
+                                                                         ServletWebRequest request,
+                                                                         Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        Flight flight = flightService.getFlight(id, current);
+        String etag = etag(flight, "columns", request);
+        if (notModified(request, etag)) return null;
+        return cached(etag).body(flightService.getRecordColumns(flight));
+    }
+
+    /**
+     * Okno záznamov: {@code from}/{@code to} (HH:mm[:ss]) a keyset stránkovanie cez {@code cursor}
+     * (= nextCursor z predošlej odpovede).
+     */
+    @GetMapping("/{id}/records/page")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightRecordPageDto> getFlightRecordPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm[:ss]") LocalTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm[:ss]") LocalTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_LIMIT) int limit,
+            Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        flightService.getFlight(id, current); // validácia vlastníka/ADMIN
+        return ResponseEntity.ok(flightService.getRecordPage(id, from, to, cursor, limit));
+    }
+
+    /**
+     * Streamované záznamy ({@code ?format=ndjson|csv}) – píšu sa počas čítania z DB,
+     * pamäť nezávisí od veľkosti letu.
+     */
+    @GetMapping("/{id}/records/stream")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamFlightRecords(@PathVariable Long id,
+                                                                     @RequestParam(defaultValue = "ndjson") String format,
+                                                                     Principal principal) {
+        FlightService.RecordFormat recordFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> FlightService.RecordFormat.NDJSON;
+            case "csv" -> FlightService.RecordFormat.CSV;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        };
+
+        User current = userService.getByEmail(principal.getName());
+        flightService.getFlight(id, current); // validácia vlastníka/ADMIN ešte pred prvým bajtom
+
+        StreamingResponseBody body = out -> flightService.writeRecords(id, recordFormat, out);
+        return ResponseEntity.ok()
+                .contentType(recordFormat == FlightService.RecordFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Dáta pre grafy: {@code ?channels=altitudeM,speedKn&points=2000} – každý kanál zredukovaný
+     * (LTTB) na najviac {@code points} bodov.
+     */
+    @GetMapping("/{id}/series")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightSeriesDto> getFlightSeries(@PathVariable Long id,
+                                                           @RequestParam List<String> channels,
+                                                           @RequestParam(defaultValue = "" + FlightService.DEFAULT_SERIES_POINTS) int points,
+                                                           ServletWebRequest request,
+                                                           Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        Flight flight = flightService.getFlight(id, current);
+        // query parametre sú súčasťou URL, teda aj kľúča cache – ETag stačí na úrovni letu
+        String etag = etag(flight, "series", request);
+        if (notModified(request, etag)) return null;
+        return cached(etag).body(flightService.getSeries(flight, channels, points));
+    }
+
+    /**
+     * Agregáty pre prehľadové grafy: {@code ?from&to&resolution=<s>} alebo {@code ?points=N};
+     * vyberie sa najhrubšia úroveň (1/10/60 s), ktorá rozlíšenie spĺňa.
+     */
+    @GetMapping("/{id}/rollups")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<FlightRollupsDto> getFlightRollups(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm[:ss]") LocalTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm[:ss]") LocalTime to,
+            @RequestParam(required = false) Integer resolution,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(required = false) List<String> channels,
+            ServletWebRequest request,
+            Principal principal) {
+        User current = userService.getByEmail(principal.getName());
+        Flight flight = flightService.getFlight(id, current);
+        String etag = etag(flight, "rollups", request);
+        if (notModified(request, etag)) return null;
+        return cached(etag).body(flightService.getRollups(flight, from, to, resolution, points, channels));
     }
 
     @GetMapping("/{id}/stats")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<FlightStatsDto> getFlightStats(@PathVariable Long id,
+                                                         ServletWebRequest request,
                                                          Principal principal) {
         User current = userService.getByEmail(principal.getName());
-        flightService.getFlight(id, current);
+        Flight flight = flightService.getFlight(id, current);
+        String etag = etag(flight, "stats", request);
+        if (notModified(request, etag)) return null;
         FlightStatsDto stats = flightService.getStats(id);
-        return ResponseEntity.ok(stats);
+        return cached(etag).body(stats);
+    }
+
+    /**
+     * ETag reprezentácie: rovnaký let v JSON, CBOR a MessagePack sú rôzne bajty, takže silný ETag
+     * musí obsahovať aj formát, ktorý klient dostane.
+     */
+    private String etag(Flight flight, String resource, ServletWebRequest request) {
+        return flightService.etag(flight, resource + "-" + representation(request.getHeader(HttpHeaders.ACCEPT)));
+    }
+
+    /**
+     * Formát, ktorý vyberie negociácia (WebConfig): prvý typ z Accept podľa q a špecifickosti,
+     * ktorý niektorý konvertor vie; JSON má prednosť a je aj default.
+     */
+    static String representation(String accept) {
+        if (accept == null || accept.isBlank()) return "json";
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            if (type.includes(MediaType.APPLICATION_JSON)) return "json";
+            if (type.includes(MediaType.APPLICATION_CBOR)) return "cbor";
+            if (type.includes(WebConfig.APPLICATION_MSGPACK) || type.includes(WebConfig.APPLICATION_X_MSGPACK)) return "msgpack";
+        }
+        return "json";
+    }
+
+    /**
+     * If-None-Match sedí → 304 bez tela (ETag nastaví Spring). Cache-Control/Vary treba aj na 304,
+     * inak by ich Spring Security prepísal na no-store a klient by uložené dáta zahodil.
+     */
+    private static boolean notModified(ServletWebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) return false;
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, FLIGHT_CACHE.getHeaderValue());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+
+    /** 200 s ETagom; Vary: Accept – JSON/CBOR/MessagePack sú rôzne reprezentácie tej istej URL. */
+    private static ResponseEntity.BodyBuilder cached(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(FLIGHT_CACHE)
+                .varyBy(HttpHeaders.ACCEPT);
     }
 }
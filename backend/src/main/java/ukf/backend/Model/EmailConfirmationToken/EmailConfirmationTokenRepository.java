@@ -1,10 +1,17 @@
 package ukf.backend.Model.EmailConfirmationToken;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface EmailConfirmationTokenRepository extends JpaRepository<EmailConfirmationToken, Long> {
     EmailConfirmationToken findByToken(String token);
     String deleteByToken(String token);
+
+    @Modifying
+    @Query("delete from EmailConfirmationToken t where t.user.id = :userId")
+    int deleteAllByUserIdInBulk(@Param("userId") Long userId);
 }
@@ -8,6 +8,7 @@ import ukf.backend.Model.device.Device;
 import ukf.backend.Model.flight.Flight;
 import ukf.backend.Model.EmailConfirmationToken.EmailConfirmationToken;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -30,6 +31,10 @@ public class User {
 
     private String profilePicture;
 
+    // admin ho zmazal, dáta sa ešte mažú na pozadí (UserPurgeService) – nedá sa prihlásiť ani nájsť
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private DeviceRequest deviceRequest = DeviceRequest.HAS_OWN_DEVICE;
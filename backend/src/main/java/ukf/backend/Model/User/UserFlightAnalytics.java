@@ -0,0 +1,27 @@
+package ukf.backend.Model.User;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Súhrn letov používateľa – prepočíta sa z {@code flights} po každom ingeste/zmazaní
+ * (UserAnalyticsService), záznamy sa pri tom nečítajú.
+ */
+@Entity
+@Table(name = "user_flight_analytics")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserFlightAnalytics {
+
+    @Id
+    private Long userId;
+
+    private Integer totalFlights;
+    private Long totalRecords;
+    private Long totalDurationSeconds;
+    private Long averageDurationSeconds;
+    private Double totalDistanceKm;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package ukf.backend.Model.User;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserFlightAnalyticsRepository extends JpaRepository<UserFlightAnalytics, Long> {
+}
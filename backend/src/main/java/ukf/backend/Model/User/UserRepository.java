@@ -1,9 +1,13 @@
 package ukf.backend.Model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ukf.backend.Model.Role.Role;
@@ -15,4 +19,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // ✅ NEW
     List<User> findByDeviceRequest(DeviceRequest deviceRequest);
+
+    List<User> findAllByDeletedAtIsNull();
+
+    /** Skryje používateľa pred purge. 0 = už je označený. */
+    @Modifying
+    @Query("update User u set u.deletedAt = :at where u.id = :id and u.deletedAt is null")
+    int markDeleted(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Query("select u.id from User u where u.deletedAt is not null")
+    List<Long> findIdsPendingPurge();
+
+    @Modifying
+    @Query(value = "DELETE FROM users_roles WHERE user_id = :id", nativeQuery = true)
+    int deleteRoleLinks(@Param("id") Long id);
+
+    /** Bez načítania entity (cascade na flights/devices/tokens). Závislé riadky už musia byť preč. */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -39,7 +39,8 @@ public class UserService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
-        Optional<User> user = repository.findByEmail(email);
+        // používateľ v purge sa už neprihlási (ani platným JWT)
+        Optional<User> user = repository.findByEmail(email).filter(u -> u.getDeletedAt() == null);
         if (user.isPresent()) {
             var userObj = user.get();
             var authorities = userObj.getRoles().stream()
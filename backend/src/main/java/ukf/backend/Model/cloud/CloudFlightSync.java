@@ -0,0 +1,37 @@
+package ukf.backend.Model.cloud;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rozpracovaný sync jedného letu z Cloud Inboxu – ktoré chunky sú už stiahnuté na disku
+ * (uploads/cloud-staging/&lt;id&gt;/). Po acku sa zmaže; ďalší pokus pokračuje prvým chýbajúcim chunkom.
+ * deviceId je textové id zariadenia (bez FK), čistí ho aj purge používateľa.
+ */
+@Entity
+@Table(name = "cloud_flight_syncs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cloud_flight_syncs_device_flight", columnNames = {"device_id", "flight_id"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CloudFlightSync {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String deviceId;
+
+    @Column(nullable = false, length = 128)
+    private String flightId;
+
+    private Integer totalChunks;
+
+    // let už je commitnutý, chýba len ack – pri ďalšom syncu sa neingestuje znova
+    private Long importedFlightId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,36 @@
+package ukf.backend.Model.cloud;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stiahnutý chunk rozpracovaného syncu – veľkosť a SHA-256 súboru na disku, aby sa pri
+ * pokračovaní dal overiť bez opätovného sťahovania.
+ */
+@Entity
+@Table(name = "cloud_flight_sync_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cloud_sync_chunks_sync_chunk", columnNames = {"sync_id", "chunk_no"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CloudFlightSyncChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sync_id", nullable = false)
+    private CloudFlightSync sync;
+
+    @Column(nullable = false)
+    private Integer chunkNo;
+
+    private Long sizeBytes;
+
+    @Column(length = 64)
+    private String sha256;
+
+    private LocalDateTime fetchedAt;
+}
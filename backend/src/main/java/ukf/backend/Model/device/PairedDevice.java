@@ -0,0 +1,9 @@
+package ukf.backend.Model.device;
+
+/**
+ * Projekcia spárovaného zariadenia pre plánovaný sync – len deviceId a vlastník, bez entít.
+ */
+public interface PairedDevice {
+    String getDeviceId();
+    Long getOwnerId();
+}
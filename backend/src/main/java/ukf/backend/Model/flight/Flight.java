@@ -10,7 +10,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        // zoznam letov používateľa (najnovšie prvé) + keyset stránkovanie (start_time, id)
+        @Index(name = "idx_flights_user_start_id", columnList = "user_id, start_time, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Flight {
 
@@ -28,6 +31,11 @@ public class Flight {
     private LocalDateTime endTime;
     private Integer       recordCount;
     private Double        distanceKm;
+    private LocalDateTime ingestedAt;     // koniec ingestu – súčasť ETagu
+    private LocalDateTime deletedAt;      // zmazaný, záznamy sa ešte mažú na pozadí (FlightPurgeService)
+
+    @Embedded
+    private FlightStats   stats;
 
     @OneToMany(mappedBy = "flight",
             cascade = CascadeType.ALL,
@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "flight_records")
+@Table(name = "flight_records", indexes = {
+        // časové okná a keyset stránkovanie v rámci letu (flight_id, time, id)
+        @Index(name = "idx_flight_records_flight_time_id", columnList = "flight_id, time, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class FlightRecord {
 
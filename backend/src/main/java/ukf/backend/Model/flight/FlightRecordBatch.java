@@ -0,0 +1,92 @@
+package ukf.backend.Model.flight;
+
+import ukf.backend.Service.flight.FlightLogParser;
+
+import java.time.LocalTime;
+
+/**
+ * Stĺpcový buffer záznamov letu (primitívne polia, žiadne FlightRecord entity).
+ * Plní ho ingest a zapisuje {@link ukf.backend.Repository.flight.FlightRecordJdbcRepository}.
+ * Chýbajúca hodnota je NaN (v DB NULL).
+ */
+public final class FlightRecordBatch {
+
+    private final int capacity;
+    private int size;
+
+    private final int[] secondOfDay;
+    private final double[] latitude;
+    private final double[] longitude;
+    private final double[] temperatureC;
+    private final double[] pressureHpa;
+    private final double[] altitudeM;
+    private final double[] imuX;
+    private final double[] imuY;
+    private final double[] imuZ;
+    private final double[] turbulenceG;
+    private final double[] speedKn;
+
+    public FlightRecordBatch(int capacity) {
+        this.capacity = capacity;
+        this.secondOfDay = new int[capacity];
+        this.latitude = new double[capacity];
+        this.longitude = new double[capacity];
+        this.temperatureC = new double[capacity];
+        this.pressureHpa = new double[capacity];
+        this.altitudeM = new double[capacity];
+        this.imuX = new double[capacity];
+        this.imuY = new double[capacity];
+        this.imuZ = new double[capacity];
+        this.turbulenceG = new double[capacity];
+        this.speedKn = new double[capacity];
+    }
+
+    public void add(FlightLogParser.Sample s) {
+        int i = size++;
+        secondOfDay[i] = s.secondOfDay;
+        latitude[i] = s.latitude;
+        longitude[i] = s.longitude;
+        temperatureC[i] = s.temperatureC;
+        pressureHpa[i] = s.pressureHpa;
+        altitudeM[i] = s.altitudeM;
+        imuX[i] = s.imuX;
+        imuY[i] = s.imuY;
+        imuZ[i] = s.imuZ;
+        turbulenceG[i] = s.turbulenceG;
+        speedKn[i] = s.speedKn;
+    }
+
+    /** Skopíruje i-ty záznam z inej dávky. */
+    public void addFrom(FlightRecordBatch src, int i) {
+        int j = size++;
+        secondOfDay[j] = src.secondOfDay[i];
+        latitude[j] = src.latitude[i];
+        longitude[j] = src.longitude[i];
+        temperatureC[j] = src.temperatureC[i];
+        pressureHpa[j] = src.pressureHpa[i];
+        altitudeM[j] = src.altitudeM[i];
+        imuX[j] = src.imuX[i];
+        imuY[j] = src.imuY[i];
+        imuZ[j] = src.imuZ[i];
+        turbulenceG[j] = src.turbulenceG[i];
+        speedKn[j] = src.speedKn[i];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public boolean isFull() { return size == capacity; }
+    public void clear() { size = 0; }
+
+    public int secondOfDay(int i) { return secondOfDay[i]; }
+    public LocalTime time(int i) { return LocalTime.ofSecondOfDay(secondOfDay[i]); }
+    public double latitude(int i) { return latitude[i]; }
+    public double longitude(int i) { return longitude[i]; }
+    public double temperatureC(int i) { return temperatureC[i]; }
+    public double pressureHpa(int i) { return pressureHpa[i]; }
+    public double altitudeM(int i) { return altitudeM[i]; }
+    public double imuX(int i) { return imuX[i]; }
+    public double imuY(int i) { return imuY[i]; }
+    public double imuZ(int i) { return imuZ[i]; }
+    public double turbulenceG(int i) { return turbulenceG[i]; }
+    public double speedKn(int i) { return speedKn[i]; }
+}
@@ -0,0 +1,51 @@
+package ukf.backend.Model.flight;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+/**
+ * Predpočítaný agregát záznamov letu za jeden časový kôš (1 s, 10 s alebo 60 s) –
+ * min/max/avg pre každý kanál FlightRecord. Plní sa pri ingeste cez
+ * {@link ukf.backend.Repository.flight.FlightRollupJdbcRepository}, entita definuje schému.
+ */
+@Entity
+@Table(name = "flight_record_rollups", indexes = {
+        @Index(name = "idx_flight_rollups_flight_level_bucket", columnList = "flight_id, level_sec, bucket_start")
+})
+@Getter @Setter @NoArgsConstructor
+public class FlightRecordRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flight_id", nullable = false)
+    @JsonIgnore
+    private Flight flight;
+
+    /** Dĺžka koša v sekundách (1, 10, 60). */
+    private Integer levelSec;
+
+    /** Začiatok koša (čas dňa zarovnaný na levelSec). */
+    private LocalTime bucketStart;
+
+    private Integer sampleCount;
+
+    // stĺpce = min_/max_/avg_ + stĺpec z flight_records (FlightRollupJdbcRepository ich skladá rovnako)
+    private Double minLatitude, maxLatitude, avgLatitude;
+    private Double minLongitude, maxLongitude, avgLongitude;
+    private Double minTemperatureC, maxTemperatureC, avgTemperatureC;
+    private Double minPressureHpa, maxPressureHpa, avgPressureHpa;
+    private Double minAltitudeM, maxAltitudeM, avgAltitudeM;
+    private Double minImuX, maxImuX, avgImuX;
+    private Double minImuY, maxImuY, avgImuY;
+    private Double minImuZ, maxImuZ, avgImuZ;
+    @Column(name = "min_turbulence_g") private Double minTurbulenceG;
+    @Column(name = "max_turbulence_g") private Double maxTurbulenceG;
+    @Column(name = "avg_turbulence_g") private Double avgTurbulenceG;
+    private Double minSpeedKn, maxSpeedKn, avgSpeedKn;
+}
@@ -0,0 +1,16 @@
+package ukf.backend.Model.flight;
+
+import java.io.IOException;
+
+/**
+ * Zdroj sparsovaných záznamov letu, ktorý sa číta po dávkach (pull).
+ */
+public interface FlightRecordSource {
+
+    /**
+     * Doplní {@code batch} ďalšími záznamami (kým nie je plný alebo kým sa zdroj neminie).
+     *
+     * @return false ak už neprišiel žiadny ďalší záznam
+     */
+    boolean fill(FlightRecordBatch batch) throws IOException;
+}
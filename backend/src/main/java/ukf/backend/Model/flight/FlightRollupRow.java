@@ -0,0 +1,43 @@
+package ukf.backend.Model.flight;
+
+/**
+ * Jeden kôš rollupu pred zápisom / po načítaní (bez entity). Kanály v poradí {@link #CHANNELS}.
+ * NaN v min/max/avg = kanál nemá v koši žiadnu hodnotu (v DB NULL).
+ */
+public final class FlightRollupRow {
+
+    /** Názvy kanálov (polia FlightRecord) – index do min/max/avg. */
+    public static final String[] CHANNELS = {
+            "latitude", "longitude", "temperatureC", "pressureHpa", "altitudeM",
+            "imuX", "imuY", "imuZ", "turbulenceG", "speedKn"
+    };
+
+    public final int levelSec;
+    public final int bucketStart; // sekunda dňa
+    public int count;
+    public final double[] min = new double[CHANNELS.length];
+    public final double[] max = new double[CHANNELS.length];
+    public final double[] avg = new double[CHANNELS.length];
+
+    public FlightRollupRow(int levelSec, int bucketStart) {
+        this.levelSec = levelSec;
+        this.bucketStart = bucketStart;
+    }
+
+    /** Hodnota kanálu {@code ch} i-teho záznamu dávky. */
+    public static double channel(FlightRecordBatch b, int i, int ch) {
+        return switch (ch) {
+            case 0 -> b.latitude(i);
+            case 1 -> b.longitude(i);
+            case 2 -> b.temperatureC(i);
+            case 3 -> b.pressureHpa(i);
+            case 4 -> b.altitudeM(i);
+            case 5 -> b.imuX(i);
+            case 6 -> b.imuY(i);
+            case 7 -> b.imuZ(i);
+            case 8 -> b.turbulenceG(i);
+            case 9 -> b.speedKn(i);
+            default -> throw new IndexOutOfBoundsException(ch);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package ukf.backend.Model.flight;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * Súhrnné štatistiky letu uložené priamo vo flights – počítajú sa pri ingeste,
+ * takže /stats nemusí čítať flight_records.
+ *
+ * Všetky stĺpce null = let z doby pred týmito stĺpcami (doplní ich FlightStatsBackfill).
+ */
+@Embeddable
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class FlightStats {
+
+    private Long sampleCount;
+
+    private Double minTemperatureC;
+    private Double maxTemperatureC;
+    private Double avgTemperatureC;
+
+    private Double minPressureHpa;
+    private Double maxPressureHpa;
+    private Double avgPressureHpa;
+
+    private Double minAltitudeM;
+    private Double maxAltitudeM;
+    private Double avgAltitudeM;
+
+    private Double minTurbulenceG;
+    private Double maxTurbulenceG;
+    private Double avgTurbulenceG;
+
+    private Double minSpeedKn;
+    private Double maxSpeedKn;
+    private Double avgSpeedKn;
+}
@@ -0,0 +1,15 @@
+package ukf.backend.Model.flight;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projekcia letu pre zoznamy – len stĺpce z flights, bez entity (user, stats, kolekcie).
+ */
+public interface FlightSummary {
+    Long getId();
+    String getName();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Integer getRecordCount();
+    Double getDistanceKm();
+}
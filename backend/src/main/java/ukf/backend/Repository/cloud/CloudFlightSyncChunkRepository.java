@@ -0,0 +1,23 @@
+package ukf.backend.Repository.cloud;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ukf.backend.Model.cloud.CloudFlightSyncChunk;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CloudFlightSyncChunkRepository extends JpaRepository<CloudFlightSyncChunk, Long> {
+
+    List<CloudFlightSyncChunk> findAllBySyncIdOrderByChunkNo(Long syncId);
+
+    @Modifying
+    @Query("delete from CloudFlightSyncChunk c where c.sync.id = :syncId and c.chunkNo in :chunkNos")
+    int deleteChunks(@Param("syncId") Long syncId, @Param("chunkNos") Collection<Integer> chunkNos);
+
+    @Modifying
+    @Query("delete from CloudFlightSyncChunk c where c.sync.id in :syncIds")
+    int deleteAllBySyncIdIn(@Param("syncIds") Collection<Long> syncIds);
+}
@@ -0,0 +1,29 @@
+package ukf.backend.Repository.cloud;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ukf.backend.Model.cloud.CloudFlightSync;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CloudFlightSyncRepository extends JpaRepository<CloudFlightSync, Long> {
+
+    Optional<CloudFlightSync> findByDeviceIdAndFlightId(String deviceId, String flightId);
+
+    List<CloudFlightSync> findAllByDeviceId(String deviceId);
+
+    @Query("select s.id from CloudFlightSync s where s.deviceId in :deviceIds")
+    List<Long> findIdsByDeviceIdIn(@Param("deviceIds") Collection<String> deviceIds);
+
+    @Modifying
+    @Query("update CloudFlightSync s set s.importedFlightId = :flightId where s.id = :id")
+    int markImported(@Param("id") Long id, @Param("flightId") Long flightId);
+
+    @Modifying
+    @Query("delete from CloudFlightSync s where s.id in :ids")
+    int deleteRowsByIdIn(@Param("ids") Collection<Long> ids);
+}
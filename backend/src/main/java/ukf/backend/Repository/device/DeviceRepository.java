@@ -1,7 +1,11 @@
 package ukf.backend.Repository.device;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ukf.backend.Model.device.Device;
+import ukf.backend.Model.device.PairedDevice;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +23,13 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
 
     // ✅ NEW
     long countByOwnerId(Long ownerId);
+
+    /** Zariadenia s vlastníkom, ktorý nie je zmazaný – pre plánovaný sync (CloudSyncPoller). */
+    @Query("select d.deviceId as deviceId, o.id as ownerId from Device d join d.owner o " +
+           "where o.deletedAt is null order by d.id")
+    List<PairedDevice> findAllPaired();
+
+    @Modifying
+    @Query("delete from Device d where d.owner.id = :ownerId")
+    int deleteAllByOwnerIdInBulk(@Param("ownerId") Long ownerId);
 }
\ No newline at end of file
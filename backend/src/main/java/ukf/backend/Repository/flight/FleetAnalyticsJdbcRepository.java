@@ -0,0 +1,109 @@
+package ukf.backend.Repository.flight;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agregáty nad flights pre fleet analytiku – len stĺpce letu a uložené štatistiky
+ * (FlightStats), flight_records sa nečítajú. Jeden dotaz = jeden rozsah user_id,
+ * takže ho viac vlákien môže počítať paralelne (index idx_flights_user_start_id).
+ */
+@Repository
+@RequiredArgsConstructor
+public class FleetAnalyticsJdbcRepository {
+
+    /** Súčty jednej skupiny (región × mesiac) v rámci jedného rozsahu používateľov. */
+    public record Row(
+            String region,
+            int year,
+            int month,
+            long flights,
+            long durationSeconds,
+            double distanceKm,
+            long turbulenceSamples,
+            double turbulenceSum,      // sample_count * avg, aby sa dal spočítať vážený priemer
+            Double maxTurbulenceG,
+            long[] maxTurbulenceHistogram
+    ) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** [min, max] user_id medzi živými letmi, null keď nie sú žiadne lety. */
+    public long[] userIdRange() {
+        return jdbcTemplate.query(
+                "SELECT MIN(user_id), MAX(user_id) FROM flights WHERE deleted_at IS NULL",
+                rs -> {
+                    if (!rs.next()) return null;
+                    long min = rs.getLong(1);
+                    if (rs.wasNull()) return null;
+                    return new long[] { min, rs.getLong(2) };
+                });
+    }
+
+    /**
+     * Skupiny región × mesiac (podľa start_time) pre používateľov z [fromUserId, toUserId].
+     * Histogram má {@code bins.length + 1} tried: {@code < bins[0]}, {@code [bins[i-1], bins[i])}, {@code >= bins[last]}.
+     */
+    public List<Row> aggregate(long fromUserId, long toUserId, double[] bins) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder histogram = new StringBuilder();
+        for (int i = 0; i <= bins.length; i++) {
+            histogram.append(", SUM(CASE WHEN ");
+            if (i == 0) {
+                histogram.append("f.max_turbulenceg < ?");
+                params.add(bins[0]);
+            } else if (i == bins.length) {
+                histogram.append("f.max_turbulenceg >= ?");
+                params.add(bins[i - 1]);
+            } else {
+                histogram.append("f.max_turbulenceg >= ? AND f.max_turbulenceg < ?");
+                params.add(bins[i - 1]);
+                params.add(bins[i]);
+            }
+            histogram.append(" THEN 1 ELSE 0 END) AS h").append(i);
+        }
+        params.add(fromUserId);
+        params.add(toUserId);
+
+        String sql =
+                "SELECT u.region AS region, YEAR(f.start_time) AS y, MONTH(f.start_time) AS m, COUNT(*) AS flights, " +
+                "COALESCE(SUM(TIMESTAMPDIFF(SECOND, f.start_time, f.end_time)), 0) AS duration_seconds, " +
+                "COALESCE(SUM(f.distance_km), 0) AS distance_km, " +
+                "COALESCE(SUM(CASE WHEN f.avg_turbulenceg IS NOT NULL THEN f.sample_count END), 0) AS turb_samples, " +
+                "COALESCE(SUM(f.sample_count * f.avg_turbulenceg), 0) AS turb_sum, " +
+                "MAX(f.max_turbulenceg) AS turb_max" +
+                histogram +
+                " FROM flights f JOIN `user` u ON u.id = f.user_id" +
+                " WHERE f.user_id BETWEEN ? AND ? AND f.deleted_at IS NULL AND f.start_time IS NOT NULL" +
+                " GROUP BY u.region, YEAR(f.start_time), MONTH(f.start_time)";
+
+        int classes = bins.length + 1;
+        return jdbcTemplate.query(sql, (rs, i) -> mapRow(rs, classes), params.toArray());
+    }
+
+    private static Row mapRow(ResultSet rs, int classes) throws SQLException {
+        long[] histogram = new long[classes];
+        for (int i = 0; i < classes; i++) histogram[i] = rs.getLong("h" + i);
+
+        double max = rs.getDouble("turb_max");
+        boolean noTurbulence = rs.wasNull();
+        return new Row(
+                rs.getString("region"),
+                rs.getInt("y"),
+                rs.getInt("m"),
+                rs.getLong("flights"),
+                rs.getLong("duration_seconds"),
+                rs.getDouble("distance_km"),
+                rs.getLong("turb_samples"),
+                rs.getDouble("turb_sum"),
+                noTurbulence ? null : max,
+                histogram
+        );
+    }
+}
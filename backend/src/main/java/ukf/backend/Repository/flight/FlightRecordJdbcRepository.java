@@ -0,0 +1,285 @@
+package ukf.backend.Repository.flight;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.stereotype.Repository;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRecordSource;
+import ukf.backend.Model.flight.FlightStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hromadný zápis do flight_records cez čisté JDBC.
+ *
+ * FlightRecord má IDENTITY id, takže Hibernate insert batching vypína a saveAll() robí
+ * jeden INSERT na riadok. Tu ide celý batch jedným batchUpdate – s rewriteBatchedStatements=true
+ * ho Connector/J pošle ako multi-row INSERT ... VALUES (...),(...).
+ *
+ * Pre veľmi veľké lety je tu aj LOAD DATA LOCAL INFILE. Driver smie serveru poslať len súbory
+ * z adresára allowLoadLocalInfileInPath (JDBC URL) – globálne allowLoadLocalInfile=true
+ * (ktoré by serveru dovolilo vyžiadať si ľubovoľný lokálny súbor) sa nepoužíva.
+ * Záznamy sa preto najprv zapíšu ako TSV do dočasného súboru v tom adresári.
+ *
+ * Beží v rovnakej transakcii (a na rovnakom spojení) ako JPA, takže rollback ingestu platí aj sem.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecordJdbcRepository {
+
+    // Názvy stĺpcov sú tie, ktoré vytvorila Hibernate (CamelCaseToUnderscoresNamingStrategy):
+    // veľké písmeno na konci názvu podčiarkovník nedostane – temperatureC → temperaturec, imuX → imux.
+
+    private static final String INSERT_SQL =
+            "INSERT INTO flight_records (flight_id, time, latitude, longitude, temperaturec, pressure_hpa, " +
+            "altitudem, imux, imuy, imuz, turbulence_g, speed_kn) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOAD_DATA_SQL =
+            "LOAD DATA LOCAL INFILE '%s' INTO TABLE flight_records " +
+            "CHARACTER SET ascii FIELDS TERMINATED BY '\\t' LINES TERMINATED BY '\\n' " +
+            "(flight_id, time, latitude, longitude, temperaturec, pressure_hpa, " +
+            "altitudem, imux, imuy, imuz, turbulence_g, speed_kn)";
+
+    /** Poradie stĺpcov pre {@link #streamByFlightId}. */
+    public static final String STREAM_COLUMNS =
+            "id, time, latitude, longitude, temperaturec, pressure_hpa, " +
+            "altitudem, imux, imuy, imuz, turbulence_g, speed_kn";
+
+    private static final String STREAM_SQL =
+            "SELECT " + STREAM_COLUMNS + " FROM flight_records WHERE flight_id = ? ORDER BY id";
+
+    /** Kanály (názov poľa FlightRecord → stĺpec), ktoré sa dajú čítať cez {@link #streamChannels}. */
+    public static final Map<String, String> CHANNEL_COLUMNS = channelColumns();
+
+    private static final String AGGREGATE_SQL =
+            "SELECT COUNT(*) AS cnt, " +
+            "MIN(temperaturec) AS min_t, MAX(temperaturec) AS max_t, AVG(temperaturec) AS avg_t, " +
+            "MIN(pressure_hpa) AS min_p, MAX(pressure_hpa) AS max_p, AVG(pressure_hpa) AS avg_p, " +
+            "MIN(altitudem) AS min_a, MAX(altitudem) AS max_a, AVG(altitudem) AS avg_a, " +
+            "MIN(turbulence_g) AS min_g, MAX(turbulence_g) AS max_g, AVG(turbulence_g) AS avg_g, " +
+            "MIN(speed_kn) AS min_s, MAX(speed_kn) AS max_s, AVG(speed_kn) AS avg_s " +
+            "FROM flight_records WHERE flight_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // null = ešte nezistené; server ani URL sa za behu nemenia
+    private volatile Boolean localInfileAvailable;
+    private volatile Path localInfileDir;
+
+    public void insertBatch(long flightId, FlightRecordBatch batch) {
+        if (batch.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, flightId);
+                ps.setObject(2, batch.time(i));
+                setNullable(ps, 3, batch.latitude(i));
+                setNullable(ps, 4, batch.longitude(i));
+                setNullable(ps, 5, batch.temperatureC(i));
+                setNullable(ps, 6, batch.pressureHpa(i));
+                setNullable(ps, 7, batch.altitudeM(i));
+                setNullable(ps, 8, batch.imuX(i));
+                setNullable(ps, 9, batch.imuY(i));
+                setNullable(ps, 10, batch.imuZ(i));
+                setNullable(ps, 11, batch.turbulenceG(i));
+                setNullable(ps, 12, batch.speedKn(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    /**
+     * Zapíše všetky zvyšné záznamy zo {@code source} jedným LOAD DATA LOCAL INFILE.
+     * {@code batch} slúži len ako pracovný buffer. Dočasný TSV súbor sa po načítaní zmaže.
+     *
+     * @return počet riadkov odovzdaných do LOAD DATA
+     */
+    public long loadData(long flightId, FlightRecordSource source, FlightRecordBatch batch) throws IOException {
+        FlightRecordLoadDataStream in = new FlightRecordLoadDataStream(flightId, source, batch);
+
+        Path tsv = null;
+        try {
+            tsv = Files.createTempFile(localInfileDir(), "flight-" + flightId + "-", ".tsv");
+            Files.copy(in, tsv, StandardCopyOption.REPLACE_EXISTING);
+
+            String sql = LOAD_DATA_SQL.formatted(tsv.toString().replace("\\", "\\\\").replace("'", "\\'"));
+            jdbcTemplate.execute((StatementCallback<Integer>) st -> st.executeUpdate(sql));
+            return in.rows();
+        } finally {
+            if (tsv != null) {
+                try {
+                    Files.deleteIfExists(tsv);
+                } catch (IOException ex) {
+                    log.warn("Cannot delete LOAD DATA file {}: {}", tsv, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * LOAD DATA LOCAL potrebuje allowLoadLocalInfileInPath v JDBC URL aj local_infile=ON na serveri.
+     * Ak niečo chýba, ingest ostane na batch INSERT-och. Adresár sa vytvorí, ak neexistuje.
+     */
+    public boolean isLocalInfileAvailable() {
+        Boolean cached = localInfileAvailable;
+        if (cached != null) return cached;
+
+        boolean available;
+        try {
+            available = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+                String dir = con.unwrap(JdbcConnection.class).getPropertySet()
+                        .getStringProperty(PropertyKey.allowLoadLocalInfileInPath).getValue();
+                if (dir == null || dir.isBlank()) return false;
+
+                try {
+                    localInfileDir = Files.createDirectories(Path.of(dir)).toRealPath();
+                } catch (IOException ex) {
+                    log.warn("LOAD DATA directory {} is not usable: {}", dir, ex.getMessage());
+                    return false;
+                }
+
+                try (Statement st = con.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT @@GLOBAL.local_infile")) {
+                    return rs.next() && rs.getInt(1) == 1;
+                }
+            }));
+        } catch (Exception ex) {
+            log.warn("Cannot determine LOAD DATA LOCAL support, using batch inserts: {}", ex.getMessage());
+            available = false;
+        }
+
+        log.info("LOAD DATA LOCAL INFILE for flight_records: {}", available ? "available in " + localInfileDir : "disabled");
+        localInfileAvailable = available;
+        return available;
+    }
+
+    private Path localInfileDir() {
+        if (!isLocalInfileAvailable()) {
+            throw new IllegalStateException("LOAD DATA LOCAL INFILE is not available");
+        }
+        return localInfileDir;
+    }
+
+    /**
+     * Zmaže najviac {@code limit} záznamov letu (index na flight_id, bez načítania entít).
+     * Mimo transakcie je každý chunk samostatný commit – zámky a undo log ostávajú malé.
+     * Volať opakovane, kým nevráti 0.
+     */
+    public int deleteChunk(long flightId, int limit) {
+        return jdbcTemplate.update("DELETE FROM flight_records WHERE flight_id = ? LIMIT ?", flightId, limit);
+    }
+
+    /**
+     * min/max/avg kanálov priamo v DB (bez načítania záznamov) – pre lety, ktoré nemajú
+     * štatistiky uložené z ingestu. Null ak let nemá žiadne záznamy.
+     */
+    public FlightStats aggregateStats(long flightId) {
+        return jdbcTemplate.queryForObject(AGGREGATE_SQL, (rs, rowNum) -> {
+            long count = rs.getLong("cnt");
+            if (count == 0) return null;
+            return FlightStats.builder()
+                    .sampleCount(count)
+                    .minTemperatureC(rs.getObject("min_t", Double.class))
+                    .maxTemperatureC(rs.getObject("max_t", Double.class))
+                    .avgTemperatureC(rs.getObject("avg_t", Double.class))
+                    .minPressureHpa(rs.getObject("min_p", Double.class))
+                    .maxPressureHpa(rs.getObject("max_p", Double.class))
+                    .avgPressureHpa(rs.getObject("avg_p", Double.class))
+                    .minAltitudeM(rs.getObject("min_a", Double.class))
+                    .maxAltitudeM(rs.getObject("max_a", Double.class))
+                    .avgAltitudeM(rs.getObject("avg_a", Double.class))
+                    .minTurbulenceG(rs.getObject("min_g", Double.class))
+                    .maxTurbulenceG(rs.getObject("max_g", Double.class))
+                    .avgTurbulenceG(rs.getObject("avg_g", Double.class))
+                    .minSpeedKn(rs.getObject("min_s", Double.class))
+                    .maxSpeedKn(rs.getObject("max_s", Double.class))
+                    .avgSpeedKn(rs.getObject("avg_s", Double.class))
+                    .build();
+        }, flightId);
+    }
+
+    /**
+     * Všetky záznamy letu po jednom riadku do {@code handler}. Connector/J s fetchSize=Integer.MIN_VALUE
+     * streamuje ResultSet riadok po riadku (forward-only cursor), takže pamäť nezávisí od veľkosti letu.
+     *
+     * Spojenie je počas čítania obsadené – volať mimo JPA transakcie.
+     */
+    public void streamByFlightId(long flightId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, flightId);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Stĺpec time + vybrané kanály v poradí záznamov, streamovane ako {@link #streamByFlightId}.
+     * Prvý stĺpec je time, potom kanály v poradí {@code channels}.
+     *
+     * @param channels kľúče z {@link #CHANNEL_COLUMNS}
+     */
+    public void streamChannels(long flightId, List<String> channels, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT time");
+        for (String ch : channels) {
+            String col = CHANNEL_COLUMNS.get(ch);
+            if (col == null) throw new IllegalArgumentException("Unknown channel: " + ch);
+            sql.append(", ").append(col);
+        }
+        sql.append(" FROM flight_records WHERE flight_id = ? ORDER BY id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, flightId);
+            return ps;
+        }, handler);
+    }
+
+    /** NaN (chýbajúca hodnota z ingestu) ide do DB ako NULL. */
+    static void setNullable(PreparedStatement ps, int index, double v) throws SQLException {
+        if (Double.isNaN(v)) ps.setNull(index, Types.DOUBLE);
+        else ps.setDouble(index, v);
+    }
+
+    private static Map<String, String> channelColumns() {
+        Map<String, String> m = new LinkedHashMap<>();
+        m.put("latitude", "latitude");
+        m.put("longitude", "longitude");
+        m.put("temperatureC", "temperaturec");
+        m.put("pressureHpa", "pressure_hpa");
+        m.put("altitudeM", "altitudem");
+        m.put("imuX", "imux");
+        m.put("imuY", "imuy");
+        m.put("imuZ", "imuz");
+        m.put("turbulenceG", "turbulence_g");
+        m.put("speedKn", "speed_kn");
+        return Collections.unmodifiableMap(m);
+    }
+}
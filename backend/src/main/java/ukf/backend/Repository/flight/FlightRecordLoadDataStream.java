@@ -0,0 +1,119 @@
+package ukf.backend.Repository.flight;
+
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRecordSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * TSV pre LOAD DATA LOCAL INFILE: pri čítaní si ťahá ďalšie dávky zo zdroja
+ * a kóduje ich ako riadky (flight_id, time, ...), ktoré sa rovno zapisujú do dočasného súboru.
+ * Celý let tak nikdy nie je v pamäti naraz.
+ *
+ * Double sa zapisuje v najkratšom presnom tvare (ako Double.toString), MySQL ho načíta na rovnakú hodnotu.
+ */
+final class FlightRecordLoadDataStream extends InputStream {
+
+    private final String flightIdPrefix;
+    private final FlightRecordSource source;
+    private final FlightRecordBatch batch;
+
+    private final StringBuilder sb = new StringBuilder(256);
+    private byte[] buf = new byte[64 * 1024];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private long rows;
+
+    FlightRecordLoadDataStream(long flightId, FlightRecordSource source, FlightRecordBatch batch) {
+        this.flightIdPrefix = flightId + "\t";
+        this.source = source;
+        this.batch = batch;
+    }
+
+    /** Počet riadkov, ktoré stream odovzdal do LOAD DATA. */
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos == limit && !refill()) return -1;
+        return buf[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (pos == limit && !refill()) return -1;
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(buf, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    private boolean refill() throws IOException {
+        pos = 0;
+        limit = 0;
+        while (limit == 0) {
+            if (eof) return false;
+
+            batch.clear();
+            if (!source.fill(batch)) {
+                eof = true;
+                return false;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                encodeRow(i);
+            }
+            rows += batch.size();
+        }
+        return true;
+    }
+
+    private void encodeRow(int i) {
+        sb.setLength(0);
+        sb.append(flightIdPrefix);
+
+        int t = batch.secondOfDay(i);
+        twoDigits(t / 3600).append(':');
+        twoDigits((t / 60) % 60).append(':');
+        twoDigits(t % 60);
+
+        value(batch.latitude(i));
+        value(batch.longitude(i));
+        value(batch.temperatureC(i));
+        value(batch.pressureHpa(i));
+        value(batch.altitudeM(i));
+        value(batch.imuX(i));
+        value(batch.imuY(i));
+        value(batch.imuZ(i));
+        value(batch.turbulenceG(i));
+        value(batch.speedKn(i));
+        sb.append('\n');
+
+        int n = sb.length();
+        if (limit + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, limit + n));
+        }
+        // len ASCII znaky
+        for (int k = 0; k < n; k++) {
+            buf[limit++] = (byte) sb.charAt(k);
+        }
+    }
+
+    /** NaN (chýbajúca hodnota) = {@code \N}, čo LOAD DATA načíta ako NULL. */
+    private void value(double v) {
+        sb.append('\t');
+        if (Double.isNaN(v)) sb.append("\\N");
+        else sb.append(v);
+    }
+
+    private StringBuilder twoDigits(int v) {
+        if (v < 10) sb.append('0');
+        return sb.append(v);
+    }
+}
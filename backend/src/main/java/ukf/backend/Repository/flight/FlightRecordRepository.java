@@ -1,8 +1,12 @@
 package ukf.backend.Repository.flight;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ukf.backend.Model.flight.FlightRecord;
 
+import java.time.LocalTime;
 import java.util.List;
 
 public interface FlightRecordRepository extends JpaRepository<FlightRecord, Long> {
@@ -11,5 +15,21 @@ public interface FlightRecordRepository extends JpaRepository<FlightRecord, Long
 
     long countByFlightId(Long flightId);
 
-    void deleteByFlightId(Long flightId);
+    /**
+     * Záznamy v časovom okne [from, to] zoradené podľa (time, id), začínajúc za kurzorom
+     * (afterTime, afterId). Bez kurzora: afterTime = from, afterId = -1.
+     * Pokrýva ho index idx_flight_records_flight_time_id.
+     */
+    @Query("""
+            select r from FlightRecord r
+            where r.flight.id = :flightId
+              and r.time <= :to
+              and (r.time > :afterTime or (r.time = :afterTime and r.id > :afterId))
+            order by r.time, r.id
+            """)
+    List<FlightRecord> findPage(@Param("flightId") Long flightId,
+                                @Param("to") LocalTime to,
+                                @Param("afterTime") LocalTime afterTime,
+                                @Param("afterId") long afterId,
+                                Limit limit);
 }
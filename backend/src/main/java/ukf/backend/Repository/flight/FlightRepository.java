@@ -1,11 +1,94 @@
 // backend/src/main/java/ukf/backend/Repository/flight/FlightRepository.java
 package ukf.backend.Repository.flight;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightSummary;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface FlightRepository extends JpaRepository<Flight, Long> {
-    List<Flight> findAllByUserIdOrderByStartTimeDesc(Long userId);
+    List<FlightSummary> findAllByUserIdAndDeletedAtIsNullOrderByStartTimeDescIdDesc(Long userId);
+
+    /**
+     * Lety používateľa od najnovšieho, začínajúc za kurzorom (afterStart, afterId) – v rámci
+     * {@code start_time < afterStart}, pri rovnakom čase podľa id. Filtre {@code namePrefix}
+     * (LIKE vzor, escape znak '!') a {@code minDistance} sú voliteľné (null).
+     * Pokrýva ho index idx_flights_user_start_id.
+     */
+    @Query("""
+            select f.id as id, f.name as name, f.startTime as startTime, f.endTime as endTime,
+                   f.recordCount as recordCount, f.distanceKm as distanceKm
+            from Flight f
+            where f.user.id = :userId
+              and f.deletedAt is null
+              and f.startTime >= :from
+              and (f.startTime < :afterStart or (f.startTime = :afterStart and f.id < :afterId))
+              and (:namePrefix is null or f.name like :namePrefix escape '!')
+              and (:minDistance is null or f.distanceKm >= :minDistance)
+            order by f.startTime desc, f.id desc
+            """)
+    List<FlightSummary> findPage(@Param("userId") Long userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("afterStart") LocalDateTime afterStart,
+                                 @Param("afterId") long afterId,
+                                 @Param("namePrefix") String namePrefix,
+                                 @Param("minDistance") Double minDistance,
+                                 Limit limit);
+
+    /**
+     * Lety bez start_time (staré záznamy) – v zozname idú až za všetkými s časom, od najvyššieho id,
+     * začínajúc pod kurzorom {@code afterId}. Filtre ako pri {@link #findPage}.
+     */
+    @Query("""
+            select f.id as id, f.name as name, f.startTime as startTime, f.endTime as endTime,
+                   f.recordCount as recordCount, f.distanceKm as distanceKm
+            from Flight f
+            where f.user.id = :userId
+              and f.deletedAt is null
+              and f.startTime is null
+              and f.id < :afterId
+              and (:namePrefix is null or f.name like :namePrefix escape '!')
+              and (:minDistance is null or f.distanceKm >= :minDistance)
+            order by f.id desc
+            """)
+    List<FlightSummary> findPageWithoutStartTime(@Param("userId") Long userId,
+                                                 @Param("afterId") long afterId,
+                                                 @Param("namePrefix") String namePrefix,
+                                                 @Param("minDistance") Double minDistance,
+                                                 Limit limit);
+
+    /** Lety bez uložených štatistík (z doby pred FlightStats). */
+    @Query("select f.id from Flight f where f.stats.sampleCount is null and f.deletedAt is null")
+    List<Long> findIdsWithoutStats();
+
+    /** Skryje let; záznamy zmaže FlightPurgeService. 0 = už bol označený. */
+    @Modifying
+    @Query("update Flight f set f.deletedAt = :at where f.id = :id and f.deletedAt is null")
+    int markDeleted(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    /** Skryje všetky lety používateľa naraz (purge používateľa). */
+    @Modifying
+    @Query("update Flight f set f.deletedAt = :at where f.user.id = :userId and f.deletedAt is null")
+    int markDeletedByUserId(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    @Query("select f.id from Flight f where f.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    /** Lety označené na zmazanie, ktorých purge ešte nedobehol (napr. pred reštartom). */
+    @Query("select f.id from Flight f where f.deletedAt is not null")
+    List<Long> findIdsPendingPurge();
+
+    /**
+     * Zmaže riadok letu bez načítania entity – {@code delete(entity)} by kvôli cascade/orphanRemoval
+     * najprv načítal všetky records. Záznamy a rollupy už musia byť preč.
+     */
+    @Modifying
+    @Query("delete from Flight f where f.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
@@ -0,0 +1,131 @@
+package ukf.backend.Repository.flight;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ukf.backend.Model.flight.FlightRollupRow;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * flight_record_rollups cez čisté JDBC (schému drží entita FlightRecordRollup).
+ * Stĺpce kanálov: min_/max_/avg_ + stĺpec z {@link FlightRecordJdbcRepository#CHANNEL_COLUMNS}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FlightRollupJdbcRepository {
+
+    private static final String[] COLUMNS = FlightRecordJdbcRepository.CHANNEL_COLUMNS.values().toArray(String[]::new);
+
+    private static final String INSERT_SQL = buildInsertSql();
+
+    private static final String SELECT_SQL =
+            "SELECT level_sec, TIME_TO_SEC(bucket_start) AS bucket_sec, sample_count" + aggColumns(false) +
+            " FROM flight_record_rollups WHERE flight_id = ? AND level_sec = ?" +
+            " AND bucket_start >= ? AND bucket_start <= ? ORDER BY bucket_start, id";
+
+    // lety nahrané pred rollupmi – ten istý tvar priamo z flight_records
+    private static final String AGGREGATE_SQL =
+            "SELECT ? AS level_sec, FLOOR(TIME_TO_SEC(time) / ?) * ? AS bucket_sec, COUNT(*) AS sample_count" +
+            aggColumns(true) +
+            " FROM flight_records WHERE flight_id = ? AND time >= ? AND time <= ?" +
+            " GROUP BY bucket_sec ORDER BY bucket_sec";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBatch(long flightId, List<FlightRollupRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FlightRollupRow r = rows.get(i);
+                int p = 1;
+                ps.setLong(p++, flightId);
+                ps.setInt(p++, r.levelSec);
+                ps.setTime(p++, Time.valueOf(LocalTime.ofSecondOfDay(r.bucketStart)));
+                ps.setInt(p++, r.count);
+                for (int ch = 0; ch < COLUMNS.length; ch++) {
+                    FlightRecordJdbcRepository.setNullable(ps, p++, r.min[ch]);
+                    FlightRecordJdbcRepository.setNullable(ps, p++, r.max[ch]);
+                    FlightRecordJdbcRepository.setNullable(ps, p++, r.avg[ch]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /** Koše jednej úrovne v okne [from, to]. */
+    public List<FlightRollupRow> findByLevel(long flightId, int levelSec, LocalTime from, LocalTime to) {
+        return jdbcTemplate.query(SELECT_SQL, ROW_MAPPER,
+                flightId, levelSec, Time.valueOf(from), Time.valueOf(to));
+    }
+
+    /** Rovnaké koše vypočítané z flight_records (GROUP BY) – pre lety bez rollupov. */
+    public List<FlightRollupRow> aggregateFromRecords(long flightId, int levelSec, LocalTime from, LocalTime to) {
+        return jdbcTemplate.query(AGGREGATE_SQL, ROW_MAPPER,
+                levelSec, levelSec, levelSec, flightId, Time.valueOf(from), Time.valueOf(to));
+    }
+
+    public boolean existsForFlight(long flightId) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM flight_record_rollups WHERE flight_id = ?)", Boolean.class, flightId);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /** Najviac {@code limit} rollupov letu; volať opakovane, kým nevráti 0. */
+    public int deleteChunk(long flightId, int limit) {
+        return jdbcTemplate.update("DELETE FROM flight_record_rollups WHERE flight_id = ? LIMIT ?", flightId, limit);
+    }
+
+    private static final RowMapper<FlightRollupRow> ROW_MAPPER = (rs, rowNum) -> {
+        FlightRollupRow r = new FlightRollupRow(rs.getInt("level_sec"), rs.getInt("bucket_sec"));
+        r.count = rs.getInt("sample_count");
+        int c = 4;
+        for (int ch = 0; ch < COLUMNS.length; ch++) {
+            r.min[ch] = nullable(rs, c++);
+            r.max[ch] = nullable(rs, c++);
+            r.avg[ch] = nullable(rs, c++);
+        }
+        return r;
+    };
+
+    private static double nullable(ResultSet rs, int column) throws SQLException {
+        double v = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : v;
+    }
+
+    private static String buildInsertSql() {
+        StringBuilder cols = new StringBuilder("flight_id, level_sec, bucket_start, sample_count");
+        StringBuilder params = new StringBuilder("?, ?, ?, ?");
+        for (String col : COLUMNS) {
+            cols.append(", min_").append(col).append(", max_").append(col).append(", avg_").append(col);
+            params.append(", ?, ?, ?");
+        }
+        return "INSERT INTO flight_record_rollups (" + cols + ") VALUES (" + params + ")";
+    }
+
+    /** ", min_x, max_x, avg_x, ..." (rollup tabuľka) alebo ", MIN(x), MAX(x), AVG(x), ..." (agregát). */
+    private static String aggColumns(boolean aggregate) {
+        StringBuilder sb = new StringBuilder();
+        for (String col : COLUMNS) {
+            if (aggregate) {
+                sb.append(", MIN(").append(col).append("), MAX(").append(col).append("), AVG(").append(col).append(")");
+            } else {
+                sb.append(", min_").append(col).append(", max_").append(col).append(", avg_").append(col);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package ukf.backend.Repository.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Prepočet user_flight_analytics jedným INSERT ... SELECT nad flights (schému drží entita
+ * UserFlightAnalytics). Upsert je jeden príkaz, takže súbežné prepočty sa neprepíšu starším stavom.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserAnalyticsJdbcRepository {
+
+    private static final String AGGREGATE =
+            "SELECT user_id, COUNT(*) AS total_flights, " +
+            "COALESCE(SUM(record_count), 0) AS total_records, " +
+            "COALESCE(SUM(TIMESTAMPDIFF(SECOND, start_time, end_time)), 0) AS total_duration_seconds, " +
+            "COALESCE(ROUND(AVG(TIMESTAMPDIFF(SECOND, start_time, end_time))), 0) AS average_duration_seconds, " +
+            "COALESCE(SUM(distance_km), 0) AS total_distance_km, " +
+            "NOW() AS updated_at " +
+            "FROM flights WHERE deleted_at IS NULL";
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO user_flight_analytics (user_id, total_flights, total_records, total_duration_seconds, " +
+            "average_duration_seconds, total_distance_km, updated_at) SELECT * FROM (";
+
+    private static final String UPSERT_SUFFIX =
+            ") AS a ON DUPLICATE KEY UPDATE " +
+            "total_flights = a.total_flights, total_records = a.total_records, " +
+            "total_duration_seconds = a.total_duration_seconds, average_duration_seconds = a.average_duration_seconds, " +
+            "total_distance_km = a.total_distance_km, updated_at = a.updated_at";
+
+    private static final String REFRESH_USER_SQL =
+            UPSERT_PREFIX + AGGREGATE + " AND user_id = ? GROUP BY user_id" + UPSERT_SUFFIX;
+
+    private static final String REFRESH_ALL_SQL =
+            UPSERT_PREFIX + AGGREGATE + " GROUP BY user_id" + UPSERT_SUFFIX;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Prepočíta jedného používateľa (index na flights.user_id). Používateľ bez letov
+     * nemá v agregáte riadok – vynuluje sa samostatne.
+     */
+    public void refreshUser(long userId) {
+        if (jdbcTemplate.update(REFRESH_USER_SQL, userId) == 0) {
+            jdbcTemplate.update(
+                    "UPDATE user_flight_analytics SET total_flights = 0, total_records = 0, total_duration_seconds = 0, " +
+                    "average_duration_seconds = 0, total_distance_km = 0, updated_at = NOW() WHERE user_id = ?",
+                    userId);
+        }
+    }
+
+    /** Všetci používatelia s letmi naraz (backfill). */
+    public int refreshAll() {
+        return jdbcTemplate.update(REFRESH_ALL_SQL);
+    }
+
+    public void deleteUser(long userId) {
+        jdbcTemplate.update("DELETE FROM user_flight_analytics WHERE user_id = ?", userId);
+    }
+}
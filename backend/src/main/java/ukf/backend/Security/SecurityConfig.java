@@ -80,6 +80,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
 
                         .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        // async dispatch (StreamingResponseBody) – request bol autorizovaný už pri REQUEST dispatchi
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/error", "/error/**").permitAll()
 
                         .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
@@ -119,6 +121,10 @@ public class SecurityConfig {
                         // ----------- FLIGHTS -----------
                         .requestMatchers(HttpMethod.POST, "/api/flights")
                         .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/flights/jobs")
+                        .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/flights/raw")
+                        .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
 
                         // ----------- AVATAR UPLOAD -----------
                         .requestMatchers(HttpMethod.POST, "/api/users/*/avatar")
@@ -0,0 +1,37 @@
+package ukf.backend.Service.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Fleet analytika: agregát nad flights sa delí na rozsahy user_id ({@code partitionUsers}
+ * používateľov na jeden SQL dotaz), ktoré beží {@code parallelism} vlákien naraz.
+ * {@code turbulenceBins} sú hranice histogramu max. turbulencie letu (g), aspoň jedna.
+ */
+@ConfigurationProperties(prefix = "fleet.analytics")
+public record FleetAnalyticsProperties(
+        @DefaultValue("5000") int partitionUsers,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue({"0.5", "1.0", "1.5", "2.0", "3.0"}) List<Double> turbulenceBins
+) {
+    public FleetAnalyticsProperties {
+        // prázdny zoznam = histogram bez hraníc, SQL by čítal bins[0] – radšej zlyhať pri štarte
+        if (turbulenceBins == null || turbulenceBins.isEmpty()) {
+            throw new IllegalArgumentException("fleet.analytics.turbulence-bins must not be empty");
+        }
+        if (turbulenceBins.stream().anyMatch(b -> b == null || !Double.isFinite(b))) {
+            throw new IllegalArgumentException("fleet.analytics.turbulence-bins must be finite numbers: " + turbulenceBins);
+        }
+        turbulenceBins = List.copyOf(turbulenceBins);
+    }
+
+    public int effectiveParallelism() {
+        return Math.max(1, parallelism);
+    }
+
+    public long effectivePartitionUsers() {
+        return Math.max(1, partitionUsers);
+    }
+}
@@ -0,0 +1,259 @@
+package ukf.backend.Service.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ukf.backend.Repository.flight.FleetAnalyticsJdbcRepository;
+import ukf.backend.Repository.flight.FleetAnalyticsJdbcRepository.Row;
+import ukf.backend.dtos.analytics.FleetAnalyticsDto;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fleet analytika (hodiny, vzdialenosť podľa regiónu, turbulencia po mesiacoch) nad flights.
+ *
+ * Výpočet: rozsah user_id sa fork-join delí na partície po {@code partitionUsers} používateľov,
+ * každá partícia je jeden GROUP BY dotaz, čiastkové súčty sa spájajú pri join-e.
+ * Dashboard číta hotový snapshot v pamäti – počíta sa pri štarte, každú noc
+ * a na požiadanie admina.
+ */
+@Service
+@Slf4j
+public class FleetAnalyticsService implements ApplicationRunner {
+
+    private static final String UNKNOWN_REGION = "unknown";
+
+    private final FleetAnalyticsJdbcRepository fleetJdbc;
+    private final FleetAnalyticsProperties props;
+    private final ForkJoinPool pool;
+    private final AtomicReference<FleetAnalyticsDto> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<FleetAnalyticsDto>> inFlight = new AtomicReference<>();
+
+    public FleetAnalyticsService(FleetAnalyticsJdbcRepository fleetJdbc, FleetAnalyticsProperties props) {
+        this.fleetJdbc = fleetJdbc;
+        this.props = props;
+        // vlastný pool – listy blokujú na JDBC, nesmú brať vlákna commonPool;
+        // parallelism drží aj počet súčasne obsadených spojení z Hikari
+        this.pool = new ForkJoinPool(props.effectiveParallelism());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("fleet-analytics-snapshot").start(this::nightlySnapshot);
+    }
+
+    @Scheduled(cron = "${fleet.analytics.snapshot-cron:0 30 2 * * *}")
+    public void nightlySnapshot() {
+        try {
+            refresh();
+        } catch (Exception ex) {
+            log.warn("Fleet analytics snapshot failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Posledný snapshot; ak ešte žiadny nie je (štart), vypočíta ho hneď. */
+    public FleetAnalyticsDto getSnapshot() {
+        FleetAnalyticsDto current = snapshot.get();
+        return current != null ? current : refresh();
+    }
+
+    /** Prepočet – súbežné volania sa nezdvojujú, ďalšie počkajú na bežiaci prepočet a dostanú jeho výsledok. */
+    public FleetAnalyticsDto refresh() {
+        CompletableFuture<FleetAnalyticsDto> mine = new CompletableFuture<>();
+        CompletableFuture<FleetAnalyticsDto> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException re) throw re;
+                throw ex;
+            }
+        }
+
+        try {
+            FleetAnalyticsDto dto = compute();
+            mine.complete(dto);
+            return dto;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private FleetAnalyticsDto compute() {
+        long started = System.nanoTime();
+        double[] bins = props.turbulenceBins().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+        Map<Key, Acc> groups;
+        AtomicInteger partitions = new AtomicInteger();
+        long[] range = fleetJdbc.userIdRange();
+        if (range == null) {
+            groups = Map.of();
+        } else {
+            groups = pool.invoke(new PartitionTask(range[0], range[1], bins, partitions));
+        }
+
+        FleetAnalyticsDto dto = toDto(groups, bins, partitions.get(), (System.nanoTime() - started) / 1_000_000);
+        snapshot.set(dto);
+        log.info("Fleet analytics snapshot: {} flights, {} partitions, {} ms",
+                dto.totals().flights(), dto.partitions(), dto.computeMillis());
+        return dto;
+    }
+
+    // ---------- fork-join ----------
+
+    private final class PartitionTask extends RecursiveTask<Map<Key, Acc>> {
+        private final long fromUserId;
+        private final long toUserId;
+        private final double[] bins;
+        private final AtomicInteger partitions;
+
+        PartitionTask(long fromUserId, long toUserId, double[] bins, AtomicInteger partitions) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.bins = bins;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected Map<Key, Acc> compute() {
+            if (toUserId - fromUserId < props.effectivePartitionUsers()) {
+                partitions.incrementAndGet();
+                Map<Key, Acc> out = new HashMap<>();
+                for (Row r : fleetJdbc.aggregate(fromUserId, toUserId, bins)) {
+                    out.computeIfAbsent(key(r), k -> new Acc(bins.length + 1)).add(r);
+                }
+                return out;
+            }
+
+            long mid = fromUserId + (toUserId - fromUserId) / 2;
+            PartitionTask left = new PartitionTask(fromUserId, mid, bins, partitions);
+            PartitionTask right = new PartitionTask(mid + 1, toUserId, bins, partitions);
+            left.fork();
+            Map<Key, Acc> merged = right.compute();
+            left.join().forEach((k, acc) -> merged.merge(k, acc, Acc::merge));
+            return merged;
+        }
+    }
+
+    private static Key key(Row r) {
+        String region = r.region() == null || r.region().isBlank() ? UNKNOWN_REGION : r.region().trim();
+        return new Key(region, YearMonth.of(r.year(), r.month()));
+    }
+
+    private record Key(String region, YearMonth month) {}
+
+    /** Súčty jednej skupiny – skupiny z rôznych partícií sa dajú sčítať (partície sú disjunktné). */
+    private static final class Acc {
+        long flights;
+        long durationSeconds;
+        double distanceKm;
+        long turbulenceSamples;
+        double turbulenceSum;
+        Double maxTurbulenceG;
+        final long[] histogram;
+
+        Acc(int classes) {
+            histogram = new long[classes];
+        }
+
+        void add(Row r) {
+            flights += r.flights();
+            durationSeconds += r.durationSeconds();
+            distanceKm += r.distanceKm();
+            turbulenceSamples += r.turbulenceSamples();
+            turbulenceSum += r.turbulenceSum();
+            maxTurbulenceG = max(maxTurbulenceG, r.maxTurbulenceG());
+            for (int i = 0; i < histogram.length; i++) histogram[i] += r.maxTurbulenceHistogram()[i];
+        }
+
+        Acc merge(Acc o) {
+            flights += o.flights;
+            durationSeconds += o.durationSeconds;
+            distanceKm += o.distanceKm;
+            turbulenceSamples += o.turbulenceSamples;
+            turbulenceSum += o.turbulenceSum;
+            maxTurbulenceG = max(maxTurbulenceG, o.maxTurbulenceG);
+            for (int i = 0; i < histogram.length; i++) histogram[i] += o.histogram[i];
+            return this;
+        }
+
+        private static Double max(Double a, Double b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return Math.max(a, b);
+        }
+    }
+
+    // ---------- DTO ----------
+
+    private FleetAnalyticsDto toDto(Map<Key, Acc> groups, double[] bins, int partitions, long computeMillis) {
+        Map<String, Acc> byRegion = new TreeMap<>();
+        Map<YearMonth, Acc> byMonth = new TreeMap<>();
+        Acc total = new Acc(bins.length + 1);
+        groups.forEach((k, acc) -> {
+            byRegion.computeIfAbsent(k.region(), r -> new Acc(bins.length + 1)).merge(acc);
+            byMonth.computeIfAbsent(k.month(), m -> new Acc(bins.length + 1)).merge(acc);
+            total.merge(acc);
+        });
+
+        List<FleetAnalyticsDto.RegionStats> regions = new ArrayList<>();
+        byRegion.forEach((region, a) -> regions.add(new FleetAnalyticsDto.RegionStats(
+                region, a.flights, hours(a.durationSeconds), round(a.distanceKm))));
+        regions.sort(Comparator.comparingDouble(FleetAnalyticsDto.RegionStats::distanceKm).reversed());
+
+        List<FleetAnalyticsDto.MonthStats> months = new ArrayList<>();
+        byMonth.forEach((month, a) -> months.add(new FleetAnalyticsDto.MonthStats(
+                month.toString(),
+                a.flights,
+                hours(a.durationSeconds),
+                round(a.distanceKm),
+                a.turbulenceSamples > 0 ? round(a.turbulenceSum / a.turbulenceSamples) : null,
+                a.maxTurbulenceG,
+                a.histogram)));
+
+        List<Double> binList = new ArrayList<>();
+        for (double b : bins) binList.add(b);
+
+        return new FleetAnalyticsDto(
+                LocalDateTime.now(),
+                computeMillis,
+                partitions,
+                new FleetAnalyticsDto.Totals(total.flights, hours(total.durationSeconds), round(total.distanceKm)),
+                regions,
+                months,
+                binList
+        );
+    }
+
+    private static double hours(long seconds) {
+        return round(seconds / 3600.0);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,105 @@
+package ukf.backend.Service.cloud;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sťahuje chunky letu ({@code 000001.log}, {@code 000002.log} …) súbežne na virtuálnych vláknach.
+ * Súbežnosť drží semafor zariadenia a globálny semafor (CloudInboxProperties.download).
+ */
+@Component
+public class CloudChunkDownloader {
+
+    private final CloudInboxClient cloud;
+    private final CloudInboxProperties.Download limits;
+    private final Semaphore globalPermits;
+    private final Map<String, Semaphore> devicePermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cloud-chunk-", 0).factory());
+
+    public CloudChunkDownloader(CloudInboxClient cloud, CloudInboxProperties props) {
+        this.cloud = cloud;
+        this.limits = props.download();
+        this.globalPermits = new Semaphore(Math.max(1, limits.global()), true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static String chunkName(int index) {
+        return String.format("%06d.log", index);
+    }
+
+    /** Príjemca stiahnutého chunku – volá sa súbežne z viacerých vlákien. */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(int index, byte[] data) throws IOException;
+    }
+
+    /**
+     * Stiahne chunky {@code indexes} súbežne a každý hneď odovzdá {@code sink}, takže v pamäti
+     * je len zopár chunkov naraz. Prvý neúspešný chunk zruší ostatné a vyhodí
+     * {@link CloudChunkException}; chunky odovzdané dovtedy ostávajú odovzdané.
+     */
+    public void downloadEach(String deviceId, String flightId, List<Integer> indexes, ChunkSink sink)
+            throws CloudChunkException, InterruptedIOException {
+        Semaphore device = devicePermits.computeIfAbsent(deviceId, id -> new Semaphore(Math.max(1, limits.perDevice()), true));
+
+        List<Future<?>> futures = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            String name = chunkName(index);
+            futures.add(executor.submit(() -> {
+                try {
+                    sink.accept(index, download(device, deviceId, flightId, name));
+                    return null;
+                } catch (Exception ex) {
+                    throw new CloudChunkException("Chunk " + name + " failed", ex);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Chunk download interrupted");
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof CloudChunkException c ? c : new CloudChunkException("Chunk download failed", ex.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private byte[] download(Semaphore device, String deviceId, String flightId, String name) throws Exception {
+        // vždy v rovnakom poradí (zariadenie → globálne), čakanie na permit blokuje len virtuálne vlákno
+        device.acquire();
+        try {
+            globalPermits.acquire();
+            try {
+                byte[] part = cloud.downloadChunk(deviceId, flightId, name);
+                if (part == null) throw new IllegalStateException("Empty chunk " + name);
+                return part;
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            device.release();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ukf.backend.Service.cloud;
+
+import java.io.IOException;
+
+/**
+ * Chunk letu sa nepodarilo stiahnuť z inboxu – let sa pri tomto syncu preskočí (ostáva pending).
+ */
+public class CloudChunkException extends IOException {
+
+    public CloudChunkException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
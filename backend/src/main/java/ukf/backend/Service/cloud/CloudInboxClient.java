@@ -28,11 +28,14 @@ public class CloudInboxClient {
         return res.getBody();
     }
 
-    public String downloadChunk(String deviceId, String flightId, String chunkFileName) {
-        String url = props.baseUrl() + "/flight/" + deviceId + "/" + flightId + "/" + chunkFileName;
+    /** Surové bajty chunku – dekóduje až parser, takže UTF-8 znak rozdelený medzi chunky nevadí. */
+    public byte[] downloadChunk(String deviceId, String flightId, String chunkFileName) {
+        // URI template – metriky http.client.requests majú jeden "uri" tag, nie jeden na chunk
+        String url = props.baseUrl() + "/flight/{deviceId}/{flightId}/{chunk}";
         HttpHeaders h = authHeaders();
         HttpEntity<Void> req = new HttpEntity<>(h);
-        ResponseEntity<String> res = restTemplate.exchange(url, HttpMethod.GET, req, String.class);
+        ResponseEntity<byte[]> res = restTemplate.exchange(url, HttpMethod.GET, req, byte[].class,
+                deviceId, flightId, chunkFileName);
         return res.getBody();
     }
 
@@ -1,10 +1,43 @@
 package ukf.backend.Service.cloud;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+import java.time.Duration;
+
+/**
+ * {@code stagingDir}: kam sa sťahujú chunky letu pred ingestom (mimo DB transakcie);
+ * ostávajú tam aj medzi pokusmi, kým let nie je ackovaný (CloudSyncStateService).
+ */
 @ConfigurationProperties(prefix = "cloud.inbox")
 public record CloudInboxProperties(
         String baseUrl,
         String syncToken,
-        int httpTimeoutMs
-) {}
\ No newline at end of file
+        int httpTimeoutMs,
+        @DefaultValue("uploads/cloud-staging") String stagingDir,
+        @DefaultValue Download download,
+        @DefaultValue Poll poll
+) {
+    /**
+     * Paralelné sťahovanie chunkov letu: najviac {@code perDevice} súčasných requestov
+     * na jedno zariadenie a {@code global} spolu za celý backend.
+     */
+    public record Download(
+            @DefaultValue("4") int perDevice,
+            @DefaultValue("16") int global
+    ) {}
+
+    /**
+     * Plánovaný sync všetkých spárovaných zariadení (CloudSyncPoller). Zariadenie sa pýta každý
+     * {@code interval}; kým nemá nové lety, interval sa zdvojnásobuje až po {@code maxBackoff}.
+     * Každý termín sa posunie o náhodných ±{@code jitter} (podiel), naraz beží najviac
+     * {@code concurrency} syncov. Ako často sa termíny kontrolujú, určuje cloud.inbox.poll.tick.
+     */
+    public record Poll(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("2m") Duration interval,
+            @DefaultValue("1h") Duration maxBackoff,
+            @DefaultValue("0.2") double jitter,
+            @DefaultValue("4") int concurrency
+    ) {}
+}
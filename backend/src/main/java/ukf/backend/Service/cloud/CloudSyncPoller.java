@@ -0,0 +1,195 @@
+package ukf.backend.Service.cloud;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ukf.backend.Model.User.User;
+import ukf.backend.Model.User.UserRepository;
+import ukf.backend.Model.device.PairedDevice;
+import ukf.backend.Repository.device.DeviceRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plánovaný sync všetkých spárovaných zariadení – nové lety sa objavia aj bez kliknutia na sync.
+ *
+ * Každý tick vyberie zariadenia, ktorým prišiel termín, a spúšťa ich po jednom na používateľa
+ * dookola (round-robin, začiatok sa medzi tickmi posúva), kým nie je obsadených
+ * {@code poll.concurrency} syncov; zvyšok počká na ďalší tick. Zariadenie bez nových letov
+ * sa pýta čoraz zriedkavejšie (backoff), rovnako zariadenie, ktorého let opakovane zlyháva;
+ * termíny sú rozhádzané jitterom.
+ * Bez cloud.inbox.sync-token sa nerobí nič.
+ */
+@Component
+@Slf4j
+public class CloudSyncPoller {
+
+    private final CloudSyncService syncService;
+    private final DeviceRepository deviceRepo;
+    private final UserRepository userRepo;
+    private final CloudInboxProperties props;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cloud-poll-", 0).factory());
+
+    private final Map<String, DeviceState> states = new ConcurrentHashMap<>();
+    private int roundRobinStart;
+    private boolean tokenWarningLogged;
+
+    public CloudSyncPoller(CloudSyncService syncService,
+                           DeviceRepository deviceRepo,
+                           UserRepository userRepo,
+                           CloudInboxProperties props) {
+        this.syncService = syncService;
+        this.deviceRepo = deviceRepo;
+        this.userRepo = userRepo;
+        this.props = props;
+        this.permits = new Semaphore(Math.max(1, props.poll().concurrency()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${cloud.inbox.poll.tick:30s}", initialDelayString = "${cloud.inbox.poll.tick:30s}")
+    public void tick() {
+        CloudInboxProperties.Poll cfg = props.poll();
+        if (!cfg.enabled()) return;
+        if (props.syncToken() == null || props.syncToken().isBlank()) {
+            if (!tokenWarningLogged) {
+                log.info("Cloud sync poller idle: cloud.inbox.sync-token is not set");
+                tokenWarningLogged = true;
+            }
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<PairedDevice> paired = deviceRepo.findAllPaired();
+
+        // zariadenia na rad, zoskupené podľa vlastníka (poradie vlastníkov stabilné podľa prvého zariadenia)
+        Map<Long, ArrayDeque<PairedDevice>> dueByOwner = new LinkedHashMap<>();
+        Set<String> known = new HashSet<>();
+        for (PairedDevice d : paired) {
+            known.add(d.getDeviceId());
+            // nové zariadenie (aj po reštarte) dostane prvý termín náhodne v rámci jedného intervalu
+            DeviceState st = states.computeIfAbsent(d.getDeviceId(),
+                    id -> new DeviceState(now.plus(randomUpTo(cfg.interval()))));
+            if (st.running || st.nextDueAt.isAfter(now)) continue;
+            dueByOwner.computeIfAbsent(d.getOwnerId(), k -> new ArrayDeque<>()).add(d);
+        }
+        states.keySet().retainAll(known);
+        if (dueByOwner.isEmpty()) return;
+
+        List<ArrayDeque<PairedDevice>> queues = new ArrayList<>(dueByOwner.values());
+        Collections.rotate(queues, -(roundRobinStart++ % queues.size()));
+
+        boolean any = true;
+        while (any) {
+            any = false;
+            for (ArrayDeque<PairedDevice> q : queues) {
+                PairedDevice d = q.poll();
+                if (d == null) continue;
+                if (!permits.tryAcquire()) return;
+                any = true;
+                submit(d, states.get(d.getDeviceId()));
+            }
+        }
+    }
+
+    private void submit(PairedDevice d, DeviceState st) {
+        st.running = true;
+        executor.execute(() -> {
+            try {
+                poll(d, st);
+            } finally {
+                st.running = false;
+                permits.release();
+            }
+        });
+    }
+
+    private void poll(PairedDevice d, DeviceState st) {
+        CloudInboxProperties.Poll cfg = props.poll();
+        CloudSyncService.CloudSyncResult result = null;
+        try {
+            User owner = userRepo.findById(d.getOwnerId()).filter(u -> u.getDeletedAt() == null).orElse(null);
+            if (owner != null) {
+                result = syncService.syncDevice(owner, d.getDeviceId());
+                if (result.imported() > 0) {
+                    log.info("Cloud sync poller: device {} imported {} flight(s)", d.getDeviceId(), result.imported());
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Cloud sync poller: device {} failed: {}", d.getDeviceId(), ex.getMessage());
+        }
+
+        st.idleStreak = nextStreak(st, result);
+        st.nextDueAt = Instant.now().plus(withJitter(backoff(cfg, st.idleStreak), cfg.jitter()));
+    }
+
+    /**
+     * Import → 0. Preskočený let sa skúša čoskoro znova, ale každé ďalšie preskočenie toho istého
+     * letu (failure streak podľa flightId) interval zdvojí – let, ktorý zlyháva stále, nedrží
+     * zariadenie na základnom intervale. Streak letu vynuluje len jeho import (alebo zmiznutie z inboxu).
+     * Inak (nič nové, chyba) rastie idleStreak.
+     */
+    private static int nextStreak(DeviceState st, CloudSyncService.CloudSyncResult result) {
+        if (result == null) return Math.min(st.idleStreak + 1, 30);
+
+        // ostávajú len lety, ktoré sú stále preskočené; importované a zmiznuté vypadnú
+        Map<String, Integer> streaks = new HashMap<>();
+        for (String flightId : result.skippedFlightIds()) {
+            streaks.put(flightId, st.skipStreaks.getOrDefault(flightId, 0) + 1);
+        }
+        st.skipStreaks = streaks;
+
+        if (result.imported() > 0) return 0;
+        if (!streaks.isEmpty()) return Math.min(Collections.min(streaks.values()) - 1, 30);
+        return Math.min(st.idleStreak + 1, 30);
+    }
+
+    /** interval · 2^idleStreak, najviac maxBackoff. */
+    private static Duration backoff(CloudInboxProperties.Poll cfg, int idleStreak) {
+        Duration d = cfg.interval().multipliedBy(1L << Math.min(idleStreak, 20));
+        return d.compareTo(cfg.maxBackoff()) > 0 ? cfg.maxBackoff() : d;
+    }
+
+    private static Duration withJitter(Duration d, double jitter) {
+        double j = Math.max(0, Math.min(jitter, 1));
+        double factor = 1 + j * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis(Math.round(d.toMillis() * factor));
+    }
+
+    private static Duration randomUpTo(Duration d) {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.max(1, d.toMillis())));
+    }
+
+    private static final class DeviceState {
+        volatile Instant nextDueAt;
+        volatile int idleStreak;
+        volatile boolean running;
+        // flightId → koľkokrát po sebe bol let preskočený
+        volatile Map<String, Integer> skipStreaks = Map.of();
+
+        DeviceState(Instant nextDueAt) {
+            this.nextDueAt = nextDueAt;
+        }
+    }
+}
@@ -1,37 +1,72 @@
 package ukf.backend.Service.cloud;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import ukf.backend.Exception.FlightUploadException;
 import ukf.backend.Model.User.User;
 import ukf.backend.Service.device.DeviceService;
 import ukf.backend.Service.flight.FlightService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sync letov zariadenia z Cloud Inboxu. Bez transakcie cez celý sync: chunky letu sa stiahnu
+ * na disk (CloudSyncStateService, s checkpointmi), potom sa let ingestuje vo vlastnej transakcii
+ * (FlightService) a až po jej commite sa posiela ack. DB spojenie sa teda nedrží počas žiadneho
+ * HTTP volania a zlyhanie jedného letu nevráti späť už importované.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CloudSyncService {
 
     private final CloudInboxClient cloud;
+    private final CloudSyncStateService syncState;
     private final FlightService flightService;
 
     // ✅ ownership/permission check
     private final DeviceService deviceService;
 
-    @Transactional
+    // ručný sync a plánovaný (CloudSyncPoller) toho istého zariadenia nesmú bežať naraz – let by sa naimportoval 2×
+    private final Map<String, ReentrantLock> deviceLocks = new ConcurrentHashMap<>();
+
     public CloudSyncResult syncDevice(User user, String deviceId) throws Exception {
 
         // ✅ user musí vlastniť device (admin môže všetko podľa requireOwnedDevice)
         deviceService.requireOwnedDevice(user, deviceId);
 
+        ReentrantLock lock = deviceLocks.computeIfAbsent(deviceId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            return syncPending(user, deviceId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CloudSyncResult syncPending(User user, String deviceId) throws Exception {
         Map<String, Object> pending = cloud.pendingFlights(deviceId);
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> flights = (List<Map<String, Object>>) pending.get("pending");
 
         int imported = 0;
-        int skipped = 0;
+        List<String> skipped = new ArrayList<>();
+
+        Set<String> pendingIds = new HashSet<>();
+        if (flights != null) {
+            for (Map<String, Object> f : flights) pendingIds.add((String) f.get("flightId"));
+        }
+        // rozpracované lety, ktoré už v inboxe nie sú, sa zahodia
+        syncState.retainOnly(deviceId, pendingIds);
 
         if (flights == null || flights.isEmpty()) {
             return new CloudSyncResult(imported, skipped);
@@ -42,38 +77,49 @@ public class CloudSyncService {
             Number chunksN = (Number) f.get("chunks");
             int chunks = chunksN != null ? chunksN.intValue() : 0;
 
-            if (chunks <= 0) { skipped++; continue; }
-
-            StringBuilder sb = new StringBuilder();
-            boolean ok = true;
-
-            for (int i = 1; i <= chunks; i++) {
-                String name = String.format("%06d.log", i);
-                try {
-                    String part = cloud.downloadChunk(deviceId, flightId, name);
-                    if (part == null) { ok = false; break; }
-                    sb.append(part);
-                    if (!part.endsWith("\n")) sb.append("\n");
-                } catch (Exception ex) {
-                    ok = false;
-                    break;
-                }
-            }
+            if (chunks <= 0) { skipped.add(flightId); continue; }
 
-            if (!ok) {
-                skipped++;
+            // 1) sieť: chýbajúce chunky súbežne na disk; zlyhaný chunk = let sa preskočí,
+            //    stiahnuté chunky ostávajú a ďalší sync pokračuje prvým chýbajúcim
+            CloudSyncStateService.StagedFlight staged;
+            try {
+                staged = syncState.stage(deviceId, flightId, chunks);
+            } catch (CloudChunkException ex) {
+                log.warn("Cloud sync: flight {} of device {} skipped: {}", flightId, deviceId, ex.getMessage());
+                skipped.add(flightId);
                 continue;
             }
 
-            String fileName = "cloud_" + deviceId + "_" + flightId + ".txt";
-            flightService.ingestTextContentWithReport(fileName, sb.toString(), user);
+            // 2) DB: jeden let = jedna transakcia (commit pred návratom); už importovaný len čaká na ack.
+            //    Neplatný let (prázdny, bez platných riadkov...) sa preskočí a ostane v inboxe –
+            //    ostatné lety zariadenia sa importujú, opakované preskakovanie rieši CloudSyncPoller
+            if (staged.importedFlightId() == null) {
+                String fileName = "cloud_" + deviceId + "_" + flightId + ".txt";
+                try (InputStream content = syncState.openStaged(staged)) {
+                    // značka importu v tej istej transakcii ako let – nikdy let bez značky (dvojitý import)
+                    flightService.ingestTextStreamWithReport(fileName, content, user,
+                            flightDbId -> syncState.markImported(staged.syncId(), flightDbId));
+                } catch (FlightUploadException | IOException ex) {
+                    log.warn("Cloud sync: flight {} of device {} not imported: {}", flightId, deviceId, ex.getMessage());
+                    skipped.add(flightId);
+                    continue;
+                }
+            }
 
+            // 3) ack až po commite, potom preč so stavom aj stiahnutými chunkami
             cloud.ack(deviceId, flightId);
+            syncState.finish(staged.syncId());
             imported++;
         }
 
         return new CloudSyncResult(imported, skipped);
     }
 
-    public record CloudSyncResult(int imported, int skipped) {}
-}
\ No newline at end of file
+    /** {@code skippedFlightIds} – lety, ktoré ostali v inboxe (chunk zlyhal / let bez chunkov / neplatný obsah). */
+    public record CloudSyncResult(int imported, int skipped, List<String> skippedFlightIds) {
+
+        CloudSyncResult(int imported, List<String> skippedFlightIds) {
+            this(imported, skippedFlightIds.size(), skippedFlightIds);
+        }
+    }
+}
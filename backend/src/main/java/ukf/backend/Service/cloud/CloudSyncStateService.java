@@ -0,0 +1,211 @@
+package ukf.backend.Service.cloud;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import ukf.backend.Model.cloud.CloudFlightSync;
+import ukf.backend.Model.cloud.CloudFlightSyncChunk;
+import ukf.backend.Repository.cloud.CloudFlightSyncChunkRepository;
+import ukf.backend.Repository.cloud.CloudFlightSyncRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checkpointy cloud syncu: chunky letu sa ukladajú do {@code stagingDir/<id syncu>/000001.log …}
+ * a každý stiahnutý chunk sa zapíše do cloud_flight_sync_chunks (veľkosť, SHA-256).
+ * Ďalší pokus o ten istý let stiahne len chunky, ktoré chýbajú alebo nesedia s checkpointom.
+ * Stav sa zmaže po acku, keď let zmizne z pending, alebo pri purge vlastníka zariadenia.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CloudSyncStateService {
+
+    private final CloudFlightSyncRepository syncRepo;
+    private final CloudFlightSyncChunkRepository chunkRepo;
+    private final CloudChunkDownloader downloader;
+    private final CloudInboxProperties props;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Let pripravený na ingest: súbory chunkov v poradí, alebo id už importovaného letu (chýba len ack). */
+    public record StagedFlight(Long syncId, Long importedFlightId, List<Path> chunkFiles) {}
+
+    /**
+     * Stiahne chýbajúce chunky letu na disk. Pri zlyhaní chunku ({@link CloudChunkException})
+     * ostávajú uložené chunky aj checkpointy – ďalší pokus pokračuje od nich.
+     */
+    public StagedFlight stage(String deviceId, String flightId, int chunks) throws IOException {
+        CloudFlightSync sync = transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            CloudFlightSync s = syncRepo.findByDeviceIdAndFlightId(deviceId, flightId)
+                    .orElseGet(() -> CloudFlightSync.builder()
+                            .deviceId(deviceId)
+                            .flightId(flightId)
+                            .createdAt(now)
+                            .build());
+            s.setTotalChunks(chunks);
+            s.setUpdatedAt(now);
+            return syncRepo.save(s);
+        });
+
+        Path dir = syncDir(sync.getId());
+        List<Path> files = new ArrayList<>(chunks);
+        for (int i = 1; i <= chunks; i++) files.add(dir.resolve(CloudChunkDownloader.chunkName(i)));
+
+        if (sync.getImportedFlightId() != null) {
+            return new StagedFlight(sync.getId(), sync.getImportedFlightId(), files);
+        }
+
+        Map<Integer, CloudFlightSyncChunk> fetched = chunkRepo.findAllBySyncIdOrderByChunkNo(sync.getId()).stream()
+                .collect(Collectors.toMap(CloudFlightSyncChunk::getChunkNo, Function.identity()));
+
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 1; i <= chunks; i++) {
+            if (!isIntact(fetched.get(i), files.get(i - 1))) missing.add(i);
+        }
+
+        if (!missing.isEmpty()) {
+            if (missing.size() < chunks) {
+                log.info("Cloud sync: resuming flight {} of device {} at chunk {} ({}/{} chunks missing)",
+                        flightId, deviceId, missing.get(0), missing.size(), chunks);
+            }
+            // checkpointy bez platného súboru (zmazaný/poškodený staging) sa zahodia
+            transactionTemplate.executeWithoutResult(tx -> chunkRepo.deleteChunks(sync.getId(), missing));
+
+            Files.createDirectories(dir);
+            downloader.downloadEach(deviceId, flightId, missing,
+                    (index, data) -> store(sync, files.get(index - 1), index, data));
+        }
+
+        return new StagedFlight(sync.getId(), null, files);
+    }
+
+    /** Stiahnuté chunky ako jeden stream pre parser (súbory sa otvárajú postupne). */
+    public InputStream openStaged(StagedFlight staged) {
+        Iterator<Path> it = staged.chunkFiles().iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return it.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(it.next());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Značka, že let je importovaný – keby zlyhal ack, ďalší sync ho už neingestuje znova.
+     * Volať v transakcii ingestu (pripojí sa k nej), aby let a značka vznikli atomicky.
+     */
+    public void markImported(Long syncId, Long flightId) {
+        transactionTemplate.executeWithoutResult(tx -> syncRepo.markImported(syncId, flightId));
+    }
+
+    /** Po acku: stav aj stiahnuté chunky preč. */
+    public void finish(Long syncId) {
+        delete(List.of(syncId));
+    }
+
+    /** Lety zariadenia, ktoré už nie sú pending (ack inde, zmazané v inboxe), netreba držať. */
+    public void retainOnly(String deviceId, Set<String> pendingFlightIds) {
+        List<Long> stale = syncRepo.findAllByDeviceId(deviceId).stream()
+                .filter(s -> !pendingFlightIds.contains(s.getFlightId()))
+                .map(CloudFlightSync::getId)
+                .toList();
+        delete(stale);
+    }
+
+    /** Purge používateľa – jeho zariadenia miznú, ich rozpracované syncy tiež. */
+    public void deleteForDevices(Collection<String> deviceIds) {
+        if (deviceIds.isEmpty()) return;
+        delete(syncRepo.findIdsByDeviceIdIn(deviceIds));
+    }
+
+    private void delete(List<Long> syncIds) {
+        if (syncIds.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(tx -> {
+            chunkRepo.deleteAllBySyncIdIn(syncIds);
+            syncRepo.deleteRowsByIdIn(syncIds);
+        });
+        for (Long id : syncIds) {
+            try {
+                FileSystemUtils.deleteRecursively(syncDir(id));
+            } catch (IOException ex) {
+                log.warn("Could not delete cloud staging dir {}", syncDir(id), ex);
+            }
+        }
+    }
+
+    private void store(CloudFlightSync sync, Path file, int index, byte[] data) throws IOException {
+        // najprv celý súbor, potom checkpoint – checkpoint nikdy neukazuje na polovičný chunk
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        Files.write(part, data);
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        chunkRepo.save(CloudFlightSyncChunk.builder()
+                .sync(sync)
+                .chunkNo(index)
+                .sizeBytes((long) data.length)
+                .sha256(HexFormat.of().formatHex(sha256().digest(data)))
+                .fetchedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static boolean isIntact(CloudFlightSyncChunk checkpoint, Path file) {
+        if (checkpoint == null || !Files.isRegularFile(file)) return false;
+        try {
+            if (Files.size(file) != checkpoint.getSizeBytes()) return false;
+
+            MessageDigest md = sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), md)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(md.digest()).equals(checkpoint.getSha256());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Path syncDir(Long syncId) {
+        return Paths.get(props.stagingDir()).resolve(String.valueOf(syncId));
+    }
+}
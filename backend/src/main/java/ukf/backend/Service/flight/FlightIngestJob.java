@@ -0,0 +1,82 @@
+package ukf.backend.Service.flight;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Stav jedného async ingestu. Zapisuje ho len vlákno jobu, čítajú ho pollujúce requesty
+ * (preto volatile, bez zámkov).
+ */
+@Getter
+public class FlightIngestJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id;
+    private final Long ownerId;
+    private final String fileName;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    private volatile int linesProcessed;
+    private volatile int recordsSaved;
+    private volatile int badLines;
+
+    private volatile FlightService.IngestReport result;
+    private volatile String error;
+    private volatile String errorReason;
+
+    FlightIngestJob(String id, Long ownerId, String fileName) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.fileName = fileName;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void progress(int linesRead, int recordsSaved, int badLines) {
+        this.linesProcessed = linesRead;
+        this.recordsSaved = recordsSaved;
+        this.badLines = badLines;
+    }
+
+    void succeeded(FlightService.IngestReport report) {
+        result = report;
+        recordsSaved = report.recordsSaved();
+        badLines = report.badLines();
+        finish(Status.SUCCEEDED);
+    }
+
+    void failed(String message, String reason) {
+        error = message;
+        errorReason = reason;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status s) {
+        finishedAt = Instant.now();
+        status = s;
+    }
+
+    public boolean isFinished() {
+        Status s = status;
+        return s == Status.SUCCEEDED || s == Status.FAILED;
+    }
+
+    /** Spracované riadky za sekundu od štartu (po skončení za celý beh). */
+    public double linesPerSecond() {
+        Instant start = startedAt;
+        if (start == null) return 0;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long ms = Duration.between(start, end).toMillis();
+        return ms > 0 ? linesProcessed * 1000.0 / ms : 0;
+    }
+}
@@ -0,0 +1,133 @@
+package ukf.backend.Service.flight;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import ukf.backend.Exception.FlightUploadException;
+import ukf.backend.Model.User.User;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Async ingest: upload sa overí a odloží na disk hneď v requeste (→ 202 + id jobu),
+ * parsovanie a zápis do DB bežia na ohraničenom poole {@code flightIngestJobExecutor}.
+ *
+ * Registry jobov je len v pamäti – po reštarte sa stav nezachová, dokončené joby
+ * sa po {@code flight.ingest.jobs.ttl} zahodia.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightIngestJobService {
+
+    private final FlightService flightService;
+    private final FlightIngestProperties ingestProps;
+    private final ExecutorService flightIngestJobExecutor;
+
+    private final Map<String, FlightIngestJob> jobs = new ConcurrentHashMap<>();
+
+    /** Odložené uploady z predošlého behu už nemá kto spracovať. */
+    @PostConstruct
+    void cleanSpoolDir() throws IOException {
+        Path dir = spoolDir();
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.upload")) {
+            for (Path f : files) {
+                Files.deleteIfExists(f);
+            }
+        }
+    }
+
+    public FlightIngestJob submit(MultipartFile file, User owner) throws IOException {
+        String fileName = flightService.checkUpload(file);
+        evictExpired();
+
+        String id = UUID.randomUUID().toString();
+        Path dir = spoolDir();
+        Files.createDirectories(dir);
+        Path spooled = dir.resolve(id + ".upload").toAbsolutePath();
+
+        // multipart temp súbor po skončení requestu zmizne – presunúť/skopírovať k sebe
+        file.transferTo(spooled.toFile());
+
+        FlightIngestJob job = new FlightIngestJob(id, owner.getId(), fileName);
+        jobs.put(id, job);
+
+        try {
+            flightIngestJobExecutor.execute(() -> run(job, spooled, owner));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(id);
+            Files.deleteIfExists(spooled);
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many uploads are being processed, try again later"
+            );
+        }
+
+        log.info("Ingest job {} queued: file='{}', size={} B, owner={}", id, fileName, file.getSize(), owner.getId());
+        return job;
+    }
+
+    public FlightIngestJob getJob(String id, User requestor) {
+        evictExpired();
+
+        FlightIngestJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ingest job " + id + " not found");
+        }
+        if (!job.getOwnerId().equals(requestor.getId()) && !requestor.hasRole("ROLE_ADMIN")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        return job;
+    }
+
+    private void run(FlightIngestJob job, Path spooled, User owner) {
+        job.started();
+        try {
+            FlightService.IngestReport report = flightService.ingestSpooledFileWithReport(
+                    job.getFileName(), spooled, owner, job::progress);
+            job.succeeded(report);
+
+            log.info("Ingest job {} done: flight={}, records={}, badLines={}, {} lines/s",
+                    job.getId(), report.flight().getId(), report.recordsSaved(), report.badLines(),
+                    Math.round(job.linesPerSecond()));
+
+        } catch (FlightUploadException ex) {
+            job.failed(ex.getMessage(), ex.getFirstBadLineReason());
+        } catch (ResponseStatusException ex) {
+            job.failed(ex.getReason(), null);
+        } catch (Exception ex) {
+            log.error("Ingest job {} failed", job.getId(), ex);
+            job.failed("Ingest failed", null);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException ex) {
+                log.warn("Could not delete spooled upload {}", spooled, ex);
+            }
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(ingestProps.jobs().ttl());
+        jobs.values().removeIf(j -> j.isFinished() && j.getFinishedAt().isBefore(cutoff));
+    }
+
+    private Path spoolDir() {
+        return Paths.get(ingestProps.jobs().spoolDir());
+    }
+}
@@ -0,0 +1,60 @@
+package ukf.backend.Service.flight;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "flight.ingest")
+public record FlightIngestProperties(
+        @DefaultValue Upload upload,
+        @DefaultValue LoadData loadData,
+        @DefaultValue Pipeline pipeline,
+        @DefaultValue Jobs jobs
+) {
+    /**
+     * {@code maxSize}: limit pre uploady, ktoré nejdú cez multipart (tam platí spring.servlet.multipart.*).
+     * {@code maxDecompressedSize}: koľko smie mať rozbalený .gz / .zst upload (ochrana pred zip bombou).
+     */
+    public record Upload(
+            @DefaultValue("200MB") DataSize maxSize,
+            @DefaultValue("2GB") DataSize maxDecompressedSize
+    ) {}
+
+    /**
+     * LOAD DATA LOCAL INFILE pre veľké lety: prvých {@code thresholdLines} riadkov ide
+     * batch INSERT-om, zvyšok jedným LOAD DATA streamom.
+     */
+    public record LoadData(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("200000") int thresholdLines
+    ) {}
+
+    /**
+     * Paralelné parsovanie: reader → {@code workers} parserov po blokoch {@code blockLines} riadkov → zápis.
+     * {@code workers = 0} znamená počet jadier.
+     */
+    public record Pipeline(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("0") int workers,
+            @DefaultValue("8192") int blockLines
+    ) {
+        public int effectiveWorkers() {
+            return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Asynchrónne ingest joby: upload sa odloží do {@code spoolDir} a spracuje ho jeden
+     * z {@code workers}; čakať môže najviac {@code queueCapacity} jobov, ďalšie dostanú 503.
+     * Dokončené joby sa dajú pollovať ešte {@code ttl}. Do {@code spoolDir} sa pred ingestom
+     * odkladajú aj raw uploady (POST /api/flights/raw).
+     */
+    public record Jobs(
+            @DefaultValue("2") int workers,
+            @DefaultValue("8") int queueCapacity,
+            @DefaultValue("1h") Duration ttl,
+            @DefaultValue("uploads/ingest-spool") String spoolDir
+    ) {}
+}
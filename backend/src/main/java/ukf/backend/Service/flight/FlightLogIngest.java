@@ -0,0 +1,141 @@
+package ukf.backend.Service.flight;
+
+import lombok.extern.slf4j.Slf4j;
+import ukf.backend.Exception.FlightUploadException;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parsovanie jedného uploadu na jednom vlákne: číta riadky, plní dávky záznamov a popri tom
+ * počíta všetko, čo ide do Flight / IngestReport (vzdialenosť, prvý/posledný čas, zlé riadky).
+ *
+ * Kam sa dávky zapíšu (JDBC batch, LOAD DATA) rozhoduje volajúci.
+ */
+@Slf4j
+final class FlightLogIngest implements FlightLogSource {
+
+    private final String fileName;
+    private final FlightLogLineReader lines;
+    private final FlightLogParser parser = new FlightLogParser();
+    private final FlightLogParser.Sample sample = new FlightLogParser.Sample();
+
+    private int lineNo = 1; // header je 1
+
+    private int recordsSaved;
+    private int firstSecond = -1;
+    private int lastSecond = -1;
+
+    private double totalDistanceKm;
+    private final FlightStatsAccumulator stats = new FlightStatsAccumulator();
+    private double prevLat, prevLon;
+    private boolean hasPrev;
+
+    private int badLines;
+    private Integer firstBadLineNumber;
+    private String firstBadLinePreview;
+    private String firstBadLineReason;
+
+    private FlightLogIngest(String fileName, InputStream in) {
+        this.fileName = fileName;
+        this.lines = new FlightLogLineReader(in);
+    }
+
+    /** Otvorí upload a preskočí header. */
+    static FlightLogIngest open(String fileName, InputStream in) throws IOException {
+        FlightLogIngest ingest = new FlightLogIngest(fileName, in);
+        if (!ingest.lines.next()) {
+            throw new FlightUploadException(
+                    "Súbor je prázdny (chýba header).",
+                    0, null, null, "EMPTY_FILE"
+            );
+        }
+        return ingest;
+    }
+
+    @Override
+    public boolean fill(FlightRecordBatch batch) throws IOException {
+        int before = batch.size();
+
+        while (!batch.isFull() && lines.next()) {
+            lineNo++;
+
+            byte[] b = lines.buffer();
+            int from = FlightLogParser.trimStart(b, lines.start(), lines.end());
+            int to = FlightLogParser.trimEnd(b, from, lines.end());
+            if (from == to) continue;
+
+            try {
+                parser.parse(b, from, to, sample);
+
+                batch.add(sample);
+                recordsSaved++;
+
+                if (firstSecond < 0) firstSecond = sample.secondOfDay;
+                lastSecond = sample.secondOfDay;
+
+            } catch (Exception ex) {
+                badLines++;
+
+                if (firstBadLineNumber == null) {
+                    String preview = FlightLogParser.preview(b, from, to);
+                    firstBadLineNumber = lineNo;
+                    firstBadLinePreview = preview;
+                    firstBadLineReason = ex.getMessage();
+                    // len prvý zlý riadok ako WARN
+                    log.warn("Bad line {} in file '{}': {} | preview='{}'",
+                            lineNo, fileName, ex.getMessage(), preview);
+                } else {
+                    // ďalšie ako DEBUG aby to nespamovalo
+                    log.debug("Bad line {} in file '{}': {}", lineNo, fileName, ex.getMessage());
+                }
+
+                // skip
+            } finally {
+                // vzdialenosť sa počíta hneď po lat/lon (aj keď zvyšok riadku zlyhá) – ako doteraz
+                if (sample.hasCoordinates) {
+                    if (hasPrev) {
+                        totalDistanceKm += haversine(prevLat, prevLon, sample.latitude, sample.longitude);
+                    }
+                    prevLat = sample.latitude;
+                    prevLon = sample.longitude;
+                    hasPrev = true;
+                }
+            }
+        }
+
+        stats.add(batch, before, batch.size());
+        return batch.size() > before;
+    }
+
+    @Override public int linesRead() { return lineNo; }
+    @Override public int recordsSaved() { return recordsSaved; }
+    @Override public int firstSecond() { return firstSecond; }
+    @Override public int lastSecond() { return lastSecond; }
+    @Override public double totalDistanceKm() { return totalDistanceKm; }
+    @Override public FlightStats stats() { return stats.toStats(); }
+
+    @Override public int badLines() { return badLines; }
+    @Override public Integer firstBadLineNumber() { return firstBadLineNumber; }
+    @Override public String firstBadLinePreview() { return firstBadLinePreview; }
+    @Override public String firstBadLineReason() { return firstBadLineReason; }
+
+    /** Chýbajúca súradnica (NaN) na ktoromkoľvek konci úseku = úsek sa nepočíta, ako pri null. */
+    static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        if (Double.isNaN(lat1) || Double.isNaN(lon1) || Double.isNaN(lat2) || Double.isNaN(lon2)) return 0.0;
+        final double R = 6371.0;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double rLat1 = Math.toRadians(lat1);
+        double rLat2 = Math.toRadians(lat2);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(rLat1) * Math.cos(rLat2) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return R * c;
+    }
+}
@@ -0,0 +1,121 @@
+package ukf.backend.Service.flight;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Čítanie riadkov letového logu po bajtoch.
+ *
+ * Riadky delí rovnako ako {@link java.io.BufferedReader#readLine()} ("\n", "\r" aj "\r\n"),
+ * ale aktuálny riadok nevracia ako nový String – je to úsek interného bajtového buffra,
+ * platný len do ďalšieho volania {@link #next()}.
+ */
+public final class FlightLogLineReader {
+
+    private static final int DEFAULT_BUFFER = 64 * 1024;
+
+    private final InputStream in;
+    private byte[] buf;
+
+    private int pos;      // prvý neprečítaný bajt
+    private int limit;    // koniec platných dát v buf
+    private boolean eof;
+    private boolean skipLf; // predošlý riadok skončil '\r' -> nasledujúci '\n' sa preskočí
+
+    private int lineStart;
+    private int lineEnd;
+
+    public FlightLogLineReader(InputStream in) {
+        this(in, DEFAULT_BUFFER);
+    }
+
+    public FlightLogLineReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buf = new byte[Math.max(bufferSize, 256)];
+    }
+
+    /**
+     * Posunie sa na ďalší riadok.
+     *
+     * @return false ak je stream na konci (žiadny ďalší riadok)
+     */
+    public boolean next() throws IOException {
+        int scan = pos;
+
+        while (true) {
+            if (skipLf) {
+                if (scan < limit) {
+                    skipLf = false;
+                    if (buf[scan] == '\n') {
+                        scan++;
+                        pos = scan;
+                    }
+                    continue;
+                }
+            } else {
+                for (int i = scan; i < limit; i++) {
+                    byte b = buf[i];
+                    if (b == '\n' || b == '\r') {
+                        lineStart = pos;
+                        lineEnd = i;
+                        pos = i + 1;
+                        skipLf = (b == '\r');
+                        return true;
+                    }
+                }
+                scan = limit;
+            }
+
+            if (eof) {
+                if (pos < limit) {
+                    // posledný riadok bez ukončenia
+                    lineStart = pos;
+                    lineEnd = limit;
+                    pos = limit;
+                    return true;
+                }
+                return false;
+            }
+
+            int consumed = scan - pos;
+            fill();
+            scan = pos + consumed;
+        }
+    }
+
+    /** Buffer s aktuálnym riadkom. */
+    public byte[] buffer() {
+        return buf;
+    }
+
+    /** Začiatok (inkluzívne) aktuálneho riadku v {@link #buffer()}. */
+    public int start() {
+        return lineStart;
+    }
+
+    /** Koniec (exkluzívne, bez znakov konca riadku) aktuálneho riadku v {@link #buffer()}. */
+    public int end() {
+        return lineEnd;
+    }
+
+    private void fill() throws IOException {
+        // nedokončený riadok ostáva, už vrátené riadky sa zahodia
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) {
+            // jediný riadok dlhší ako buffer
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package ukf.backend.Service.flight;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parser jedného riadku flight logu priamo z UTF-8 bajtov (bez String/split/regex).
+ *
+ * Riadok: whitespace-separated stĺpce (tab/medzera), min. {@link #COLS} stĺpcov:
+ * Time, Latitude, Longitude, Temperature, Pressure, Altitude, aX, aY, aZ, Turbulence, X, Y, Z, Speed.
+ *
+ * Bežné hodnoty ("H:mm:ss", "12.34", "12,34", "-1.5e3") sa parsujú priamo do primitív.
+ * Všetko ostatné (chyby, exotické zápisy ako "NaN", "1d", hex) ide cez pôvodnú String cestu
+ * ({@link LocalTime#parse} / {@link Double#parseDouble}), takže výsledok aj text chyby
+ * sú rovnaké ako pri starom parseri – IngestReport sa nemení.
+ *
+ * Chýbajúca hodnota (token z netlačiteľných znakov, ktorý je po trim prázdny – pôvodne null)
+ * sa vracia ako {@link Double#NaN}; zapisovače ju ukladajú ako NULL.
+ *
+ * Inštancia nie je thread-safe (drží offsety tokenov), použi jednu na vlákno.
+ */
+public final class FlightLogParser {
+
+    public static final int COLS = 14;
+
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("H:mm:ss");
+
+    // 10^0 .. 10^22 sú v double presne
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final int[] tokStart = new int[COLS];
+    private final int[] tokEnd = new int[COLS];
+
+    /** Jeden sparsovaný riadok (mutable, znovupoužiteľný). NaN = chýbajúca hodnota. */
+    public static final class Sample {
+        public int secondOfDay;
+        public double latitude;
+        public double longitude;
+        public double temperatureC;
+        public double pressureHpa;
+        public double altitudeM;
+        public double imuX;
+        public double imuY;
+        public double imuZ;
+        public double turbulenceG;
+        public double speedKn;
+
+        /**
+         * true, ak sa podarilo načítať lat/lon – aj keď zvyšok riadku neskôr zlyhal.
+         * Pôvodný ingest počítal vzdialenosť hneď po lat/lon, pred parsovaním ostatných stĺpcov.
+         */
+        public boolean hasCoordinates;
+
+        public LocalTime time() {
+            return LocalTime.ofSecondOfDay(secondOfDay);
+        }
+    }
+
+    /** Index prvého ne-bieleho bajtu (ako String.trim: všetko &lt;= ' ' je biele). */
+    public static int trimStart(byte[] b, int from, int to) {
+        while (from < to && (b[from] & 0xFF) <= ' ') from++;
+        return from;
+    }
+
+    /** Koniec riadku po odrezaní bielych znakov (exclusive). */
+    public static int trimEnd(byte[] b, int from, int to) {
+        while (to > from && (b[to - 1] & 0xFF) <= ' ') to--;
+        return to;
+    }
+
+    /** Náhľad riadku do IngestReport – rovnaký ako pôvodný (max 200 znakov + "..."). */
+    public static String preview(byte[] b, int from, int to) {
+        int s = trimStart(b, from, to);
+        int e = trimEnd(b, s, to);
+        String trimmed = new String(b, s, e - s, StandardCharsets.UTF_8);
+        return trimmed.length() > 200 ? trimmed.substring(0, 200) + "..." : trimmed;
+    }
+
+    /**
+     * Sparsuje už orezaný (trim) neprázdny riadok {@code b[from, to)} do {@code out}.
+     *
+     * @throws IllegalArgumentException (a podtriedy) s rovnakou správou ako pôvodný parser
+     */
+    public void parse(byte[] b, int from, int to, Sample out) {
+        out.hasCoordinates = false;
+
+        int n = tokenize(b, from, to);
+        if (n < COLS) {
+            throw new IllegalArgumentException("Not enough columns: " + n + " < " + COLS);
+        }
+
+        out.secondOfDay = parseTime(b, tokStart[0], tokEnd[0]);
+
+        out.latitude = number(b, 1);
+        out.longitude = number(b, 2);
+        out.hasCoordinates = true;
+
+        out.temperatureC = number(b, 3);
+        out.pressureHpa = number(b, 4);
+        out.altitudeM = number(b, 5);
+        out.imuX = number(b, 6);
+        out.imuY = number(b, 7);
+        out.imuZ = number(b, 8);
+        out.turbulenceG = number(b, 9);
+        out.speedKn = number(b, 13);
+    }
+
+    // ---------------- tokenizer ----------------
+
+    /**
+     * Rozdelí riadok podľa \s+ (ako String.split("\\s+")) a zapamätá si offsety prvých COLS tokenov.
+     * Vracia počet tokenov (max. COLS – viac nepotrebujeme).
+     */
+    private int tokenize(byte[] b, int from, int to) {
+        int n = 0;
+        int i = from;
+        while (i < to && n < COLS) {
+            while (i < to && isSpace(b[i])) i++;
+            if (i >= to) break;
+            int s = i;
+            while (i < to && !isSpace(b[i])) i++;
+            tokStart[n] = s;
+            tokEnd[n] = i;
+            n++;
+        }
+        return n;
+    }
+
+    /** Znaky regex triedy \s: [ \t\n\x0B\f\r] */
+    private static boolean isSpace(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // ---------------- time ----------------
+
+    private static int parseTime(byte[] b, int s, int e) {
+        int len = e - s;
+        if (len == 7 || len == 8) {
+            int h0 = digit(b[s]);
+            int h = h0;
+            int p = s + 1;
+            if (len == 8) {
+                int h1 = digit(b[p++]);
+                h = (h0 < 0 || h1 < 0) ? -1 : h0 * 10 + h1;
+            }
+            if (h >= 0 && h <= 23 && b[p] == ':' && b[p + 3] == ':') {
+                int m0 = digit(b[p + 1]), m1 = digit(b[p + 2]);
+                int s0 = digit(b[p + 4]), s1 = digit(b[p + 5]);
+                if (m0 >= 0 && m0 <= 5 && m1 >= 0 && s0 >= 0 && s0 <= 5 && s1 >= 0) {
+                    return h * 3600 + (m0 * 10 + m1) * 60 + s0 * 10 + s1;
+                }
+            }
+        }
+        // pomalá (pôvodná) cesta – rovnaký výsledok aj rovnaká chyba
+        return LocalTime.parse(text(b, s, e), TIME_FMT).toSecondOfDay();
+    }
+
+    private static int digit(byte c) {
+        int d = c - '0';
+        return (d >= 0 && d <= 9) ? d : -1;
+    }
+
+    // ---------------- numbers ----------------
+
+    private double number(byte[] b, int col) {
+        int s = tokStart[col];
+        int e = tokEnd[col];
+        double v = fastDouble(b, s, e);
+        if (!Double.isNaN(v)) return v;
+        return parseDoubleStrict(text(b, s, e));
+    }
+
+    /**
+     * Desatinné číslo s bodkou alebo čiarkou (voliteľne exponent) priamo z bajtov.
+     * Vracia NaN ak zápis nie je "jednoduchý" alebo by výsledok nemusel byť presne zaokrúhlený –
+     * vtedy rozhodne Double.parseDouble.
+     */
+    private static double fastDouble(byte[] b, int s, int e) {
+        int i = s;
+        boolean neg = false;
+        if (i < e && (b[i] == '-' || b[i] == '+')) {
+            neg = b[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+
+        while (i < e) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) break;
+            if (mantissa > (MAX_EXACT_MANTISSA - 9) / 10) return Double.NaN;
+            mantissa = mantissa * 10 + d;
+            digits++;
+            i++;
+        }
+        if (i < e && (b[i] == '.' || b[i] == ',')) {
+            i++;
+            while (i < e) {
+                int d = b[i] - '0';
+                if (d < 0 || d > 9) break;
+                if (mantissa > (MAX_EXACT_MANTISSA - 9) / 10) return Double.NaN;
+                mantissa = mantissa * 10 + d;
+                digits++;
+                scale--;
+                i++;
+            }
+        }
+        if (digits == 0) return Double.NaN;
+
+        if (i < e && (b[i] == 'e' || b[i] == 'E')) {
+            i++;
+            boolean expNeg = false;
+            if (i < e && (b[i] == '-' || b[i] == '+')) {
+                expNeg = b[i] == '-';
+                i++;
+            }
+            int exp = 0;
+            int expDigits = 0;
+            while (i < e) {
+                int d = b[i] - '0';
+                if (d < 0 || d > 9) break;
+                if (exp > 1000) return Double.NaN;
+                exp = exp * 10 + d;
+                expDigits++;
+                i++;
+            }
+            if (expDigits == 0) return Double.NaN;
+            scale += expNeg ? -exp : exp;
+        }
+        if (i != e) return Double.NaN;
+
+        double v;
+        if (mantissa == 0) {
+            v = 0.0;
+        } else if (scale == 0) {
+            v = mantissa;
+        } else if (scale < 0 && scale >= -22) {
+            v = mantissa / POW10[-scale];
+        } else if (scale > 0 && scale <= 22) {
+            v = mantissa * POW10[scale];
+        } else {
+            return Double.NaN;
+        }
+        return neg ? -v : v;
+    }
+
+    /**
+     * Pôvodná String cesta (čiarka -&gt; bodka, trim, Double.parseDouble).
+     * Token z netlačiteľných znakov (po trim prázdny) je chýbajúca hodnota (NaN), nie chyba riadku.
+     */
+    private static double parseDoubleStrict(String s) {
+        s = s.replace(',', '.').trim();
+        if (s.isEmpty()) return Double.NaN;
+        return Double.parseDouble(s);
+    }
+
+    private static String text(byte[] b, int s, int e) {
+        return new String(b, s, e - s, StandardCharsets.UTF_8);
+    }
+}
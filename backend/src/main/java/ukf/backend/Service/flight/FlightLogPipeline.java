@@ -0,0 +1,349 @@
+package ukf.backend.Service.flight;
+
+import lombok.extern.slf4j.Slf4j;
+import ukf.backend.Exception.FlightUploadException;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Paralelné parsovanie uploadu v troch stupňoch:
+ * <ol>
+ *     <li>reader (vlastné virtuálne vlákno) – číta riadky a skladá ich do blokov,</li>
+ *     <li>workeri (zdieľaný pool) – každý blok sparsujú nezávisle,</li>
+ *     <li>writer (volajúci cez {@link #fill}) – berie bloky v pôvodnom poradí a zapisuje ich,
+ *         zatiaľ čo sa ďalšie bloky ešte čítajú a parsujú.</li>
+ * </ol>
+ *
+ * Všetko, čo závisí od poradia riadkov (vzdialenosť, prvý/posledný čas, prvý zlý riadok),
+ * sa skladá až vo writeri, v rovnakom poradí ako pri {@link FlightLogIngest} – výsledok je zhodný.
+ * Počet blokov "v letku" je obmedzený frontou, takže pamäť nerastie s veľkosťou súboru.
+ */
+@Slf4j
+final class FlightLogPipeline implements FlightLogSource {
+
+    /** Blok po sebe idúcich riadkov a výsledok ich parsovania. */
+    private static final class Block {
+        final int firstLineNo;
+
+        // vstup (reader)
+        byte[] data = new byte[64 * 1024];
+        int dataLen;
+        int[] starts;
+        int[] ends;
+        int lineCount;
+
+        // výstup (worker)
+        FlightRecordBatch records;
+        int firstSecond = -1;
+        int lastSecond = -1;
+
+        // súradnice všetkých riadkov s platným lat/lon + vzdialenosť od predchádzajúceho v bloku
+        double[] lat;
+        double[] lon;
+        double[] legKm;
+        int coords;
+
+        int badLines;
+        int firstBadLineNumber;
+        String firstBadLinePreview;
+        String firstBadLineReason;
+
+        Block(int firstLineNo, int maxLines) {
+            this.firstLineNo = firstLineNo;
+            this.starts = new int[maxLines];
+            this.ends = new int[maxLines];
+        }
+
+        void addLine(byte[] b, int from, int to) {
+            int len = to - from;
+            if (dataLen + len > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, dataLen + len));
+            }
+            System.arraycopy(b, from, data, dataLen, len);
+            starts[lineCount] = dataLen;
+            ends[lineCount] = dataLen + len;
+            dataLen += len;
+            lineCount++;
+        }
+
+        boolean isFull() {
+            return lineCount == starts.length;
+        }
+    }
+
+    private static final Block EOF = new Block(0, 0);
+
+    private final String fileName;
+    private final FlightLogLineReader lines;
+    private final int blockLines;
+    private final ExecutorService workers;
+    private final BlockingQueue<Future<Block>> queue;
+
+    private volatile boolean closed;
+    private Thread reader;
+
+    // writer stav
+    private Block current;
+    private int currentPos;
+    private boolean done;
+
+    private int linesRead = 1; // header
+    private int recordsSaved;
+    private int firstSecond = -1;
+    private int lastSecond = -1;
+
+    private double totalDistanceKm;
+    private final FlightStatsAccumulator stats = new FlightStatsAccumulator();
+    private double prevLat, prevLon;
+    private boolean hasPrev;
+
+    private int badLines;
+    private Integer firstBadLineNumber;
+    private String firstBadLinePreview;
+    private String firstBadLineReason;
+
+    private FlightLogPipeline(String fileName, InputStream in, ExecutorService workers, int parallelism, int blockLines) {
+        this.fileName = fileName;
+        this.lines = new FlightLogLineReader(in);
+        this.workers = workers;
+        this.blockLines = blockLines;
+        // max. rozpracovaných blokov: každý worker jeden + rovnako veľa hotových čaká na writer
+        this.queue = new ArrayBlockingQueue<>(Math.max(2, parallelism * 2));
+    }
+
+    /** Prečíta header (synchronne – prázdny súbor je chyba hneď) a spustí reader. */
+    static FlightLogPipeline open(String fileName, InputStream in, ExecutorService workers,
+                                  int parallelism, int blockLines) throws IOException {
+        FlightLogPipeline p = new FlightLogPipeline(fileName, in, workers, parallelism, blockLines);
+        if (!p.lines.next()) {
+            throw new FlightUploadException(
+                    "Súbor je prázdny (chýba header).",
+                    0, null, null, "EMPTY_FILE"
+            );
+        }
+        p.reader = Thread.ofVirtual().name("flight-ingest-reader").start(p::readLoop);
+        return p;
+    }
+
+    // ---------------- reader ----------------
+
+    private void readLoop() {
+        try {
+            int lineNo = 1;
+            Block block = null;
+
+            while (!closed && lines.next()) {
+                lineNo++;
+                if (block == null) block = new Block(lineNo, blockLines);
+                block.addLine(lines.buffer(), lines.start(), lines.end());
+
+                if (block.isFull()) {
+                    submit(block);
+                    block = null;
+                }
+            }
+            if (block != null && !closed) submit(block);
+
+            queue.put(CompletableFuture.completedFuture(EOF));
+
+        } catch (InterruptedException ex) {
+            // close() – koniec
+            Thread.currentThread().interrupt();
+        } catch (Throwable ex) {
+            if (!closed) {
+                // chyba čítania pôjde writeru v poradí, za už načítanými blokmi
+                try {
+                    queue.put(CompletableFuture.failedFuture(ex));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void submit(Block block) throws InterruptedException {
+        queue.put(workers.submit(() -> parse(block)));
+    }
+
+    // ---------------- worker ----------------
+
+    private Block parse(Block block) {
+        FlightLogParser parser = new FlightLogParser();
+        FlightLogParser.Sample sample = new FlightLogParser.Sample();
+
+        int n = block.lineCount;
+        byte[] b = block.data;
+        block.records = new FlightRecordBatch(n);
+        block.lat = new double[n];
+        block.lon = new double[n];
+        block.legKm = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            int from = FlightLogParser.trimStart(b, block.starts[i], block.ends[i]);
+            int to = FlightLogParser.trimEnd(b, from, block.ends[i]);
+            if (from == to) continue;
+
+            try {
+                parser.parse(b, from, to, sample);
+
+                block.records.add(sample);
+                if (block.firstSecond < 0) block.firstSecond = sample.secondOfDay;
+                block.lastSecond = sample.secondOfDay;
+
+            } catch (Exception ex) {
+                int lineNo = block.firstLineNo + i;
+                if (block.badLines++ == 0) {
+                    block.firstBadLineNumber = lineNo;
+                    block.firstBadLinePreview = FlightLogParser.preview(b, from, to);
+                    block.firstBadLineReason = ex.getMessage();
+                } else {
+                    log.debug("Bad line {} in file '{}': {}", lineNo, fileName, ex.getMessage());
+                }
+            } finally {
+                // vzdialenosť sa počíta hneď po lat/lon (aj keď zvyšok riadku zlyhá) – ako doteraz
+                if (sample.hasCoordinates) {
+                    int c = block.coords++;
+                    block.lat[c] = sample.latitude;
+                    block.lon[c] = sample.longitude;
+                    if (c > 0) {
+                        block.legKm[c] = FlightLogIngest.haversine(
+                                block.lat[c - 1], block.lon[c - 1], sample.latitude, sample.longitude);
+                    }
+                }
+            }
+        }
+
+        // vstupné bajty už netreba
+        block.data = null;
+        block.starts = null;
+        block.ends = null;
+        return block;
+    }
+
+    // ---------------- writer ----------------
+
+    @Override
+    public boolean fill(FlightRecordBatch batch) throws IOException {
+        int before = batch.size();
+
+        while (!batch.isFull()) {
+            if (current == null || currentPos == current.records.size()) {
+                if (!nextBlock()) break;
+                continue;
+            }
+            batch.addFrom(current.records, currentPos++);
+        }
+
+        return batch.size() > before;
+    }
+
+    /** Zoberie ďalší blok v poradí a započíta ho do súhrnu. */
+    private boolean nextBlock() throws IOException {
+        if (done) return false;
+
+        Block block = take();
+        if (block == EOF) {
+            done = true;
+            current = null;
+            return false;
+        }
+
+        linesRead += block.lineCount;
+        recordsSaved += block.records.size();
+        // štatistiky vo writeri, v poradí súboru – rovnaký výsledok ako FlightLogIngest
+        stats.add(block.records, 0, block.records.size());
+        if (block.firstSecond >= 0) {
+            if (firstSecond < 0) firstSecond = block.firstSecond;
+            lastSecond = block.lastSecond;
+        }
+
+        for (int c = 0; c < block.coords; c++) {
+            if (c == 0) {
+                if (hasPrev) {
+                    totalDistanceKm += FlightLogIngest.haversine(prevLat, prevLon, block.lat[0], block.lon[0]);
+                }
+            } else {
+                totalDistanceKm += block.legKm[c];
+            }
+        }
+        if (block.coords > 0) {
+            prevLat = block.lat[block.coords - 1];
+            prevLon = block.lon[block.coords - 1];
+            hasPrev = true;
+        }
+
+        if (block.badLines > 0) {
+            if (firstBadLineNumber == null) {
+                firstBadLineNumber = block.firstBadLineNumber;
+                firstBadLinePreview = block.firstBadLinePreview;
+                firstBadLineReason = block.firstBadLineReason;
+                // len prvý zlý riadok ako WARN
+                log.warn("Bad line {} in file '{}': {} | preview='{}'",
+                        firstBadLineNumber, fileName, firstBadLineReason, firstBadLinePreview);
+            } else {
+                log.debug("Bad line {} in file '{}': {}", block.firstBadLineNumber, fileName, block.firstBadLineReason);
+            }
+            badLines += block.badLines;
+        }
+
+        current = block;
+        currentPos = 0;
+        return true;
+    }
+
+    private Block take() throws IOException {
+        try {
+            return queue.take().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Flight ingest interrupted");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        } catch (CancellationException ex) {
+            throw new InterruptedIOException("Flight ingest cancelled");
+        }
+    }
+
+    /** Zastaví reader a zahodí rozpracované bloky (napr. keď zápis do DB zlyhal). */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        if (reader != null) reader.interrupt();
+        Future<Block> f;
+        while ((f = queue.poll()) != null) {
+            f.cancel(false);
+        }
+    }
+
+    // ---------------- súhrn ----------------
+
+    @Override public int linesRead() { return linesRead; }
+    @Override public int recordsSaved() { return recordsSaved; }
+    @Override public int firstSecond() { return firstSecond; }
+    @Override public int lastSecond() { return lastSecond; }
+    @Override public double totalDistanceKm() { return totalDistanceKm; }
+    @Override public FlightStats stats() { return stats.toStats(); }
+
+    @Override public int badLines() { return badLines; }
+    @Override public Integer firstBadLineNumber() { return firstBadLineNumber; }
+    @Override public String firstBadLinePreview() { return firstBadLinePreview; }
+    @Override public String firstBadLineReason() { return firstBadLineReason; }
+}
@@ -0,0 +1,40 @@
+package ukf.backend.Service.flight;
+
+import ukf.backend.Model.flight.FlightRecordSource;
+import ukf.backend.Model.flight.FlightStats;
+
+/**
+ * Sparsovaný upload: dávky záznamov + všetko, čo ide do Flight / IngestReport.
+ *
+ * Súhrnné hodnoty sú kompletné až keď {@link #fill} vráti false.
+ * Implementácie: {@link FlightLogIngest} (jedno vlákno), {@link FlightLogPipeline} (paralelne).
+ */
+interface FlightLogSource extends FlightRecordSource, AutoCloseable {
+
+    /** Počet spracovaných riadkov vrátane headera. */
+    int linesRead();
+
+    int recordsSaved();
+
+    /** Čas prvého / posledného platného záznamu (sekunda dňa), -1 ak žiadny. */
+    int firstSecond();
+
+    int lastSecond();
+
+    double totalDistanceKm();
+
+    /** min/max/avg kanálov zo všetkých uložených záznamov. */
+    FlightStats stats();
+
+    int badLines();
+
+    Integer firstBadLineNumber();
+
+    String firstBadLinePreview();
+
+    String firstBadLineReason();
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,56 @@
+package ukf.backend.Service.flight;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ukf.backend.Config.CacheConfig;
+import ukf.backend.Model.flight.Flight;
+import ukf.backend.Repository.flight.FlightRepository;
+
+import java.util.Collection;
+
+/**
+ * Cachovaný lookup letu podľa id (samostatný bean, aby šiel cez cache proxy aj z FlightService).
+ *
+ * Vrátený Flight je detached a zdieľaný medzi requestami – len na čítanie. Vlastník je
+ * lazy proxy, ale {@code getUser().getId()} ho neinicializuje.
+ */
+@Component
+@RequiredArgsConstructor
+class FlightLookup {
+
+    private final FlightRepository flightRepo;
+
+    /** null = let neexistuje (necachuje sa). */
+    @Cacheable(cacheNames = CacheConfig.FLIGHTS, unless = "#result == null")
+    public Flight find(Long flightId) {
+        return flightRepo.findById(flightId).orElse(null);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.FLIGHTS),
+            @CacheEvict(cacheNames = CacheConfig.FLIGHT_STATS)
+    })
+    public void evict(Long flightId) {
+    }
+
+    /**
+     * Evict hneď aj po commite – request, ktorý medzitým načítal ešte starý stav, by ho inak
+     * do cache vrátil až do expirácie. Statická s beanom v parametri, aby evict išiel cez cache proxy.
+     */
+    static void evictNowAndAfterCommit(FlightLookup lookup, Collection<Long> flightIds) {
+        flightIds.forEach(lookup::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flightIds.forEach(lookup::evict);
+                }
+            });
+        }
+    }
+}
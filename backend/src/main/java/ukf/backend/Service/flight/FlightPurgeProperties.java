@@ -0,0 +1,12 @@
+package ukf.backend.Service.flight;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Mazanie letov po chunkoch: každý {@code DELETE ... LIMIT chunkSize} je samostatný commit.
+ */
+@ConfigurationProperties(prefix = "flight.purge")
+public record FlightPurgeProperties(
+        @DefaultValue("10000") int chunkSize
+) {}
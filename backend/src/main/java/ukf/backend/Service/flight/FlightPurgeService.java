@@ -0,0 +1,99 @@
+package ukf.backend.Service.flight;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Repository.flight.FlightRollupJdbcRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongConsumer;
+
+/**
+ * Fyzické zmazanie letu: rollupy a záznamy po chunkoch ({@code DELETE ... LIMIT}), potom riadok letu
+ * jedným JPQL DELETE. Žiadne entity sa nenačítavajú, každý chunk je vlastný krátky commit.
+ *
+ * Let je medzitým skrytý cez {@code flights.deleted_at}; purge, ktorý nedobehol (reštart),
+ * sa po štarte dokončí.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightPurgeService implements ApplicationRunner {
+
+    private final FlightRepository flightRepo;
+    private final FlightLookup flightLookup;
+    private final FlightRecordJdbcRepository recordJdbc;
+    private final FlightRollupJdbcRepository rollupJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final FlightPurgeProperties purgeProps;
+    private final ExecutorService flightPurgeExecutor;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> pending = flightRepo.findIdsPendingPurge();
+        if (pending.isEmpty()) return;
+
+        log.info("Resuming purge of {} deleted flights", pending.size());
+        pending.forEach(this::purgeAsync);
+    }
+
+    /**
+     * Skryje všetky lety používateľa a vyhodí ich z cache (hneď aj po commite); v transakcii volajúceho.
+     *
+     * @return id všetkých letov používateľa (aj tých, čo už boli označené skôr)
+     */
+    public List<Long> markUserFlightsDeleted(Long userId) {
+        flightRepo.markDeletedByUserId(userId, LocalDateTime.now());
+        List<Long> ids = flightRepo.findIdsByUserId(userId);
+        FlightLookup.evictNowAndAfterCommit(flightLookup, ids);
+        return ids;
+    }
+
+    /** Naplánuje purge na pozadí (let už musí byť označený ako zmazaný). */
+    public void purgeAsync(long flightId) {
+        flightPurgeExecutor.execute(() -> {
+            try {
+                purge(flightId, n -> {});
+            } catch (Exception ex) {
+                // ostáva označený – dokončí sa pri ďalšom štarte
+                log.error("Purge of flight {} failed", flightId, ex);
+            }
+        });
+    }
+
+    /**
+     * Zmaže let aj so záznamami, synchronne. Volať mimo transakcie, inak sa chunky
+     * zlejú do jednej veľkej.
+     *
+     * @param deletedRecords dostáva počet zmazaných záznamov po každom chunku
+     * @return počet zmazaných záznamov
+     */
+    public long purge(long flightId, LongConsumer deletedRecords) {
+        int chunk = purgeProps.chunkSize();
+        long started = System.nanoTime();
+
+        while (rollupJdbc.deleteChunk(flightId, chunk) > 0) {
+            // rollupov je málo, stačí zmazať
+        }
+
+        long records = 0;
+        int n;
+        while ((n = recordJdbc.deleteChunk(flightId, chunk)) > 0) {
+            records += n;
+            deletedRecords.accept(n);
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> flightRepo.deleteRowById(flightId));
+
+        log.info("Flight {} purged: {} records in {} ms",
+                flightId, records, (System.nanoTime() - started) / 1_000_000);
+        return records;
+    }
+}
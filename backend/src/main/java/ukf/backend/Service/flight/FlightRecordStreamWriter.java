@@ -0,0 +1,76 @@
+package ukf.backend.Service.flight;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Zapisuje riadky flight_records rovno z ResultSetu do výstupu (NDJSON alebo CSV),
+ * bez FlightRecord entít a bez držania celého letu v pamäti.
+ *
+ * Očakáva stĺpce v poradí {@link ukf.backend.Repository.flight.FlightRecordJdbcRepository#STREAM_COLUMNS}.
+ * Názvy polí sú rovnaké ako v JSON z /records.
+ */
+final class FlightRecordStreamWriter implements RowCallbackHandler {
+
+    static final String[] FIELDS = {
+            "id", "time", "latitude", "longitude", "temperatureC", "pressureHpa",
+            "altitudeM", "imuX", "imuY", "imuZ", "turbulenceG", "speedKn"
+    };
+
+    private final Writer out;
+    private final FlightService.RecordFormat format;
+    private final StringBuilder row = new StringBuilder(256);
+
+    FlightRecordStreamWriter(Writer out, FlightService.RecordFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    void writeHeader() throws IOException {
+        if (format == FlightService.RecordFormat.CSV) {
+            out.write(String.join(",", FIELDS));
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        row.setLength(0);
+        if (format == FlightService.RecordFormat.NDJSON) {
+            row.append("{\"id\":").append(rs.getLong(1));
+            String time = rs.getString(2);
+            row.append(",\"time\":");
+            if (time == null) row.append("null");
+            else row.append('"').append(time).append('"');
+            for (int c = 3; c <= FIELDS.length; c++) {
+                row.append(",\"").append(FIELDS[c - 1]).append("\":");
+                double v = rs.getDouble(c);
+                if (rs.wasNull()) row.append("null");
+                else row.append(v);
+            }
+            row.append("}\n");
+        } else {
+            row.append(rs.getLong(1)).append(',');
+            String time = rs.getString(2);
+            if (time != null) row.append(time);
+            for (int c = 3; c <= FIELDS.length; c++) {
+                row.append(',');
+                double v = rs.getDouble(c);
+                if (!rs.wasNull()) row.append(v);
+            }
+            row.append('\n');
+        }
+
+        try {
+            out.append(row);
+        } catch (IOException ex) {
+            // klient zavrel spojenie – ukončí query
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ukf.backend.Service.flight;
+
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRollupRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Skladá rollupy (min/max/avg/count na kanál) za koše {@link #LEVELS} sekúnd počas ingestu.
+ * Čas v logu nie je vždy monotónny (jitter hodín zariadenia), preto sa kôš neuzavrie hneď, ako príde
+ * záznam z iného koša: otvorené koše sú v mape podľa začiatku a uzavrie sa až kôš vzdialený od
+ * aktuálneho záznamu o viac než {@link #REORDER_SEC}. Záznam, ktorý skočí späť, sa tak pripočíta
+ * do existujúceho koša a (flight_id, level_sec, bucket_start) sa nezapíše dvakrát.
+ *
+ * Chýbajúce hodnoty (NaN) sa do kanála nezapočítajú; kanál bez hodnôt v koši má min/max/avg NaN.
+ */
+final class FlightRollupBuilder {
+
+    static final int[] LEVELS = {1, 10, 60};
+
+    /** O koľko sekúnd môže záznam zaostať za susedmi a ešte padnúť do otvoreného koša. */
+    static final int REORDER_SEC = 60;
+
+    private static final int CH = FlightRollupRow.CHANNELS.length;
+    private static final int DAY_SEC = 24 * 3600;
+
+    @SuppressWarnings("unchecked")
+    private final TreeMap<Integer, Bucket>[] open = new TreeMap[LEVELS.length];
+    private final Bucket[] last = new Bucket[LEVELS.length]; // kôš predchádzajúceho záznamu
+    private final List<FlightRollupRow> done = new ArrayList<>();
+
+    FlightRollupBuilder() {
+        for (int l = 0; l < LEVELS.length; l++) open[l] = new TreeMap<>();
+    }
+
+    /** Započíta záznamy [from, to) z dávky. */
+    void add(FlightRecordBatch b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int second = b.secondOfDay(i);
+            for (int l = 0; l < LEVELS.length; l++) {
+                int level = LEVELS[l];
+                int start = second - second % level;
+                Bucket bucket = last[l];
+                if (bucket == null || bucket.row.bucketStart != start) {
+                    closeDistant(l, start);
+                    bucket = last[l] = open[l].computeIfAbsent(start, s -> new Bucket(new FlightRollupRow(level, s)));
+                }
+                bucket.accumulate(b, i);
+            }
+        }
+    }
+
+    /** Uzavrie koše úrovne {@code l}, od ktorých je kôš {@code start} ďalej než {@link #REORDER_SEC}. */
+    private void closeDistant(int l, int start) {
+        int lo = start - REORDER_SEC - LEVELS[l];
+        int hi = start + REORDER_SEC + LEVELS[l];
+        if (lo >= 0 && hi < DAY_SEC) {
+            closeAll(open[l].headMap(lo, true));
+            closeAll(open[l].tailMap(hi, true));
+        } else {
+            // okno cez polnoc – let cez polnoc, sekunda dňa pretečie
+            closeAll(open[l].subMap(Math.floorMod(hi, DAY_SEC), true, Math.floorMod(lo, DAY_SEC), true));
+        }
+    }
+
+    private void closeAll(SortedMap<Integer, Bucket> buckets) {
+        buckets.values().forEach(this::close);
+        buckets.clear();
+    }
+
+    private void close(Bucket bucket) {
+        FlightRollupRow row = bucket.row;
+        for (int ch = 0; ch < CH; ch++) {
+            row.avg[ch] = bucket.n[ch] > 0 ? bucket.sum[ch] / bucket.n[ch] : Double.NaN;
+        }
+        done.add(row);
+    }
+
+    /** Uzavreté koše od posledného volania (na zápis). */
+    List<FlightRollupRow> drain() {
+        List<FlightRollupRow> out = new ArrayList<>(done);
+        done.clear();
+        return out;
+    }
+
+    int pending() {
+        return done.size();
+    }
+
+    /** Koniec súboru – uzavrie otvorené koše. */
+    void finish() {
+        for (int l = 0; l < LEVELS.length; l++) {
+            open[l].values().forEach(this::close);
+            open[l].clear();
+            last[l] = null;
+        }
+    }
+
+    private static final class Bucket {
+        final FlightRollupRow row;
+        final double[] sum = new double[CH];
+        final int[] n = new int[CH]; // hodnoty bez NaN
+
+        Bucket(FlightRollupRow row) {
+            this.row = row;
+            Arrays.fill(row.min, Double.NaN);
+            Arrays.fill(row.max, Double.NaN);
+        }
+
+        void accumulate(FlightRecordBatch b, int i) {
+            row.count++;
+            for (int ch = 0; ch < CH; ch++) {
+                double v = FlightRollupRow.channel(b, i, ch);
+                if (Double.isNaN(v)) continue; // chýbajúca hodnota
+                if (n[ch]++ == 0) {
+                    row.min[ch] = v;
+                    row.max[ch] = v;
+                } else {
+                    if (v < row.min[ch]) row.min[ch] = v;
+                    if (v > row.max[ch]) row.max[ch] = v;
+                }
+                sum[ch] += v;
+            }
+        }
+    }
+}
@@ -2,33 +2,62 @@ package ukf.backend.Service.flight;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import ukf.backend.Config.CacheConfig;
 import ukf.backend.Exception.FlightUploadException;
 import ukf.backend.Model.User.User;
 import ukf.backend.Model.flight.Flight;
 import ukf.backend.Model.flight.FlightRecord;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRecordSource;
+import ukf.backend.Model.flight.FlightRollupRow;
+import ukf.backend.Model.flight.FlightStats;
+import ukf.backend.Model.flight.FlightSummary;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
 import ukf.backend.Repository.flight.FlightRecordRepository;
+import ukf.backend.Repository.flight.FlightRollupJdbcRepository;
 import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Service.user.UserAnalyticsService;
 import ukf.backend.dtos.FlightStatsDto;
+import ukf.backend.dtos.flight.FlightDto;
+import ukf.backend.dtos.flight.FlightPageDto;
+import ukf.backend.dtos.flight.FlightRecordColumnsDto;
+import ukf.backend.dtos.flight.FlightRecordPageDto;
+import ukf.backend.dtos.flight.FlightRollupsDto;
+import ukf.backend.dtos.flight.FlightSeriesDto;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.DoubleStream;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongConsumer;
 
 @Service
 @RequiredArgsConstructor
@@ -37,10 +66,35 @@ public class FlightService {
 
     private final FlightRepository flightRepo;
     private final FlightRecordRepository recordRepo;
-
-    private static final int COLS = 14;
-    private static final int BATCH_SIZE = 500;
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("H:mm:ss");
+    private final FlightRecordJdbcRepository recordJdbc;
+    private final FlightRollupJdbcRepository rollupJdbc;
+    private final FlightLookup flightLookup;
+    private final FlightPurgeService purgeService;
+    private final UserAnalyticsService userAnalytics;
+    private final FlightIngestProperties ingestProps;
+    private final ExecutorService flightParseExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int BATCH_SIZE = 1000;
+
+    // stránkovanie záznamov
+    public static final int DEFAULT_PAGE_LIMIT = 1000;
+    public static final int MAX_PAGE_LIMIT = 10_000;
+
+    // /api/flights/page
+    public static final int DEFAULT_FLIGHT_PAGE_LIMIT = 50;
+    public static final int MAX_FLIGHT_PAGE_LIMIT = 500;
+    // rozsah DATETIME v MySQL
+    private static final LocalDateTime MIN_START_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_START_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    // /series
+    public static final int DEFAULT_SERIES_POINTS = 2000;
+    public static final int MAX_SERIES_POINTS = 20_000;
+
+    // /rollups
+    public static final int DEFAULT_ROLLUP_POINTS = 500;
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
 
     // --- Upload security ---
     private static final Set<String> ALLOWED_EXT = Set.of("txt", "csv");
@@ -51,7 +105,10 @@ public class FlightService {
             "text/csv",
             "application/csv",
             "application/vnd.ms-excel",
-            "application/octet-stream" // some clients send this even for text
+            "application/octet-stream", // some clients send this even for text
+            "application/gzip",
+            "application/x-gzip",
+            "application/zstd"
     );
 
     private static final int PEEK_BYTES = 4096;
@@ -66,8 +123,22 @@ public class FlightService {
             String firstBadLineReason
     ) {}
 
+    /** Priebežný stav ingestu (pre async joby) – volá sa z vlákna, ktoré ingest robí, po každej dávke. */
+    @FunctionalInterface
+    public interface IngestProgress {
+        IngestProgress NONE = (linesRead, recordsSaved, badLines) -> {};
+
+        void update(int linesRead, int recordsSaved, int badLines);
+    }
+
+    /** Formáty streamovaného exportu záznamov. */
+    public enum RecordFormat { NDJSON, CSV }
+
+    /** Zvýšiť pri zmene tvaru odpovedí – zneplatní ETagy v cache klientov. */
+    private static final int REPRESENTATION_VERSION = 2;
+
     /** Backward-compatible */
-    @Transactional
+    @Transactional(rollbackFor = IOException.class)
     public Flight ingestFile(MultipartFile file, User owner) throws IOException {
         return ingestFileWithReport(file, owner).flight();
     }
@@ -76,7 +147,7 @@ public class FlightService {
      * ✅ NEW: ingest plain text content (e.g. from Cloud Inbox chunks join)
      * Reuses the same parse+persist logic as multipart upload.
      */
-    @Transactional
+    @Transactional(rollbackFor = IOException.class)
     public IngestReport ingestTextContentWithReport(String fileName, String content, User owner) throws IOException {
         if (content == null || content.isBlank()) {
             throw new FlightUploadException(
@@ -85,23 +156,147 @@ public class FlightService {
             );
         }
 
+        return ingestTextStreamWithReport(fileName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), owner);
+    }
+
+    /**
+     * Ingest textu, ktorý prichádza postupne (chunky z Cloud Inboxu) – parsuje sa priebežne,
+     * obsah sa nikde neskladá celý v pamäti. Prázdny stream = EMPTY_FILE z parsera.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public IngestReport ingestTextStreamWithReport(String fileName, InputStream content, User owner) throws IOException {
+        return ingestTextStreamWithReport(fileName, content, owner, flightId -> {});
+    }
+
+    /**
+     * Ako {@link #ingestTextStreamWithReport(String, InputStream, User)}; {@code beforeCommit} dostane id
+     * uloženého letu ešte v tej istej transakcii – čo zapíše (napr. značka importu cloud syncu),
+     * sa commitne alebo rollbackne spolu s letom.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public IngestReport ingestTextStreamWithReport(String fileName, InputStream content, User owner,
+                                                   LongConsumer beforeCommit) throws IOException {
         String safeName = safeOriginalName(fileName);
         if (safeName == null || safeName.isBlank()) safeName = "cloud.txt";
 
-        try (InputStream is = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
-             BufferedInputStream bis = new BufferedInputStream(is)) {
+        try (BufferedInputStream bis = new BufferedInputStream(content, 64 * 1024)) {
 
             // lightweight validation: NUL byte check only
             validatePlainTextPeek(bis);
 
             // shared parsing+persist
-            return ingestBufferedReaderWithReport(safeName, bis, owner);
+            IngestReport report = ingestBufferedReaderWithReport(safeName, bis, owner, IngestProgress.NONE);
+            beforeCommit.accept(report.flight().getId());
+            return report;
         }
     }
 
-    @Transactional
+    @Transactional(rollbackFor = IOException.class)
     public IngestReport ingestFileWithReport(MultipartFile file, User owner) throws IOException {
+        String originalName = checkUploadMeta(file);
+        UploadCompression compression = UploadCompression.ofFileName(originalName);
+
+        // peek na tom istom streame, ktorý sa potom parsuje – part sa číta len raz
+        try (InputStream raw = file.getInputStream();
+             BufferedInputStream bis = openUpload(raw, compression)) {
+            // shared parsing+persist (same as cloud)
+            return ingestBufferedReaderWithReport(compression.stripExt(originalName), bis, owner, IngestProgress.NONE);
+        }
+    }
+
+    /**
+     * Upload ako surové telo requestu (application/octet-stream, text/plain) – bez multipartu,
+     * jeden prechod: telo sa rozbaľuje a parsuje priamo zo socketu, nikam sa neodkladá.
+     *
+     * Beží bez transakcie cez celý ingest, aby pomalý klient nedržal DB spojenie: let sa založí
+     * skrytý ({@code deleted_at}), každá dávka je vlastný krátky zápis a na konci sa let jedným
+     * commitom zverejní. Pri chybe sa rozpracovaný let zmaže cez {@link FlightPurgeService}
+     * (po reštarte ho dorieši jeho štartovací purge).
+     *
+     * @param contentLength   z hlavičky, -1 ak nie je (chunked)
+     * @param contentEncoding napr. gzip – rozbalí sa pred prípadnou kompresiou podľa prípony
+     */
+    public IngestReport ingestStreamWithReport(String fileName, String contentType, String contentEncoding,
+                                               long contentLength, InputStream body, User owner) throws IOException {
+        String originalName = safeOriginalName(fileName);
+        String ct = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        validateUploadMeta(originalName, ct);
+        UploadCompression encoding = UploadCompression.ofContentEncoding(contentEncoding);
+        UploadCompression compression = UploadCompression.ofFileName(originalName);
+
+        if (contentLength == 0) {
+            throw new FlightUploadException(
+                    "Súbor je prázdny.",
+                    0, null, null, "EMPTY_FILE"
+            );
+        }
+
+        long maxBytes = ingestProps.upload().maxSize().toBytes();
+        if (contentLength > maxBytes) {
+            throw new ResponseStatusException(
+                    HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Upload exceeds " + ingestProps.upload().maxSize()
+            );
+        }
+
+        try (InputStream limited = new UploadLimitInputStream(body, maxBytes, "Upload exceeds " + ingestProps.upload().maxSize());
+             BufferedInputStream bis = openUpload(limited, encoding, compression)) {
+            return ingestBufferedReaderWithReport(compression.stripExt(originalName), bis, owner, IngestProgress.NONE, true);
+        }
+    }
+
+    /**
+     * Ingest uploadu, ktorý už bol overený ({@link #checkUpload}) a odložený na disk – async joby.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public IngestReport ingestSpooledFileWithReport(String fileName, Path spooled, User owner,
+                                                    IngestProgress progress) throws IOException {
+        UploadCompression compression = UploadCompression.ofFileName(fileName);
+        try (InputStream raw = Files.newInputStream(spooled);
+             BufferedInputStream bis = openUpload(raw, compression)) {
+            return ingestBufferedReaderWithReport(compression.stripExt(fileName), bis, owner, progress);
+        }
+    }
+
+    /**
+     * Overí multipart upload (prítomnosť, prípona, content-type, text/binary peek)
+     * a vráti bezpečné meno súboru.
+     */
+    public String checkUpload(MultipartFile file) throws IOException {
+        String originalName = checkUploadMeta(file);
+
+        // Basic "text-only" peek: reject if contains NUL bytes (likely binary)
+        try (InputStream raw = file.getInputStream();
+             BufferedInputStream ignored = openUpload(raw, UploadCompression.ofFileName(originalName))) {
+            return originalName;
+        }
+    }
+
+    /**
+     * Rozbalí upload (vrstvy v poradí, NONE sa preskočí), pri kompresii stráži veľkosť
+     * rozbaleného obsahu (zip bomb) a overí, že výsledok je text. Vráti stream pre parser.
+     */
+    private BufferedInputStream openUpload(InputStream raw, UploadCompression... layers) throws IOException {
+        InputStream in = raw;
+        boolean compressed = false;
+        for (UploadCompression c : layers) {
+            if (c == UploadCompression.NONE) continue;
+            in = c.decompress(in instanceof BufferedInputStream b ? b : new BufferedInputStream(in, 64 * 1024));
+            compressed = true;
+        }
+
+        if (compressed) {
+            DataSize max = ingestProps.upload().maxDecompressedSize();
+            in = new UploadLimitInputStream(in, max.toBytes(), "Decompressed upload exceeds " + max);
+        }
+
+        BufferedInputStream bis = in instanceof BufferedInputStream b ? b : new BufferedInputStream(in, 64 * 1024);
+        validatePlainTextPeek(bis);
+        return bis;
+    }
 
+    /** Kontroly uploadu, ktoré nečítajú obsah (prítomnosť, prípona, content-type). */
+    private String checkUploadMeta(MultipartFile file) {
         if (file == null) {
             throw new FlightUploadException(
                     "Chýba súbor (file).",
@@ -116,185 +311,164 @@ public class FlightService {
             );
         }
 
-        // ✅ security validation (extension + content-type + text/binary peek)
-        validateUpload(file);
-
         String originalName = safeOriginalName(file.getOriginalFilename());
-        if (originalName == null || originalName.isBlank()) originalName = "upload.txt";
 
-        // Use BufferedInputStream so we can safely read text
-        try (BufferedInputStream bis = new BufferedInputStream(file.getInputStream())) {
-            // shared parsing+persist (same as cloud)
-            return ingestBufferedReaderWithReport(originalName, bis, owner);
-        }
+        // ✅ security validation (extension + content-type); text/binary peek robí volajúci
+        validateUploadMeta(originalName, Optional.ofNullable(file.getContentType()).orElse(""));
+
+        if (originalName == null || originalName.isBlank()) originalName = "upload.txt";
+        return originalName;
     }
 
     // ---------------- Shared parsing+persist ----------------
 
     private IngestReport ingestBufferedReaderWithReport(String originalName,
                                                         BufferedInputStream bis,
-                                                        User owner) throws IOException {
+                                                        User owner,
+                                                        IngestProgress progress) throws IOException {
+        return ingestBufferedReaderWithReport(originalName, bis, owner, progress, false);
+    }
+
+    /**
+     * @param staged true = volajúci nemá transakciu (surový upload): let je do konca skrytý
+     *               a pri chybe sa namiesto rollbacku zmaže purgeom
+     */
+    private IngestReport ingestBufferedReaderWithReport(String originalName,
+                                                        BufferedInputStream bis,
+                                                        User owner,
+                                                        IngestProgress progress,
+                                                        boolean staged) throws IOException {
 
         // flight vytvoríme hneď, ale ak neskôr hodíme exception v @Transactional,
-        // tak sa rollbackne a nezostane v DB
+        // tak sa rollbackne a nezostane v DB (staged: ostane skrytý a zmaže ho purge)
         Flight flight = flightRepo.save(Flight.builder()
                 .user(owner)
                 .name(originalName) // sanitized filename only
+                .deletedAt(staged ? LocalDateTime.now() : null)
                 .build());
 
-        List<FlightRecord> buf = new ArrayList<>(BATCH_SIZE);
-        LocalTime first = null, last = null;
-
-        double totalDistanceKm = 0.0;
-        Double prevLat = null, prevLon = null;
-
-        int recordsSaved = 0;
-        int badLines = 0;
-        Integer firstBadLineNumber = null;
-        String firstBadLinePreview = null;
-        String firstBadLineReason = null;
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(bis, StandardCharsets.UTF_8))) {
+        boolean published = false;
+        try (FlightLogSource ingest = openSource(originalName, bis)) {
+
+            // záznamy idú priamo cez JDBC, bez FlightRecord entít v persistence contexte
+            FlightRecordBatch batch = new FlightRecordBatch(BATCH_SIZE);
+            FlightRollupBuilder rollups = new FlightRollupBuilder();
+
+            // každá naplnená dávka (aj počas LOAD DATA) ide aj do rollupov a progressu; uzavreté
+            // rollupy sa zapisujú priebežne – LOAD DATA najprv celý zdroj prepíše do TSV súboru,
+            // spojenie je teda počas čítania voľné
+            FlightRecordSource tap = b -> {
+                int before = b.size();
+                boolean more = ingest.fill(b);
+                rollups.add(b, before, b.size());
+                if (rollups.pending() >= BATCH_SIZE) {
+                    rollupJdbc.insertBatch(flight.getId(), rollups.drain());
+                }
+                reportProgress(ingest, progress);
+                return more;
+            };
+
+            while (tap.fill(batch)) {
+                recordJdbc.insertBatch(flight.getId(), batch);
+                batch.clear();
+
+                // veľký let: zvyšok súboru jedným LOAD DATA streamom (ak ho DB dovolí)
+                if (useLoadData(ingest)) {
+                    recordJdbc.loadData(flight.getId(), tap, batch);
+                    break;
+                }
+            }
+            rollups.finish();
+            rollupJdbc.insertBatch(flight.getId(), rollups.drain());
+            reportProgress(ingest, progress);
 
-            String header = br.readLine();
-            if (header == null) {
+            if (ingest.recordsSaved() == 0) {
                 throw new FlightUploadException(
-                        "Súbor je prázdny (chýba header).",
-                        0, null, null, "EMPTY_FILE"
+                        "Upload zlyhal: nenašiel som žiadne platné záznamy. Skontroluj formát súboru (stĺpce) a oddeľovanie (tab/medzera).",
+                        ingest.badLines(),
+                        ingest.firstBadLineNumber(),
+                        ingest.firstBadLinePreview(),
+                        ingest.firstBadLineReason()
                 );
             }
 
-            String line;
-            int lineNo = 1; // header je 1
-
-            while ((line = br.readLine()) != null) {
-                lineNo++;
-
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) continue;
-
-                String preview = trimmed.length() > 200 ? trimmed.substring(0, 200) + "..." : trimmed;
-
-                try {
-                    String[] t = trimmed.split("\\s+");
-                    if (t.length < COLS) {
-                        throw new IllegalArgumentException("Not enough columns: " + t.length + " < " + COLS);
-                    }
-
-                    LocalTime time = LocalTime.parse(t[0], TIME_FMT);
-
-                    Double lat = parseDoubleStrict(t[1]);
-                    Double lon = parseDoubleStrict(t[2]);
-
-                    if (prevLat != null && prevLon != null && lat != null && lon != null) {
-                        totalDistanceKm += haversine(prevLat, prevLon, lat, lon);
-                    }
-                    prevLat = lat;
-                    prevLon = lon;
-
-                    FlightRecord rec = FlightRecord.builder()
-                            .flight(flight)
-                            .time(time)
-                            .latitude(lat)
-                            .longitude(lon)
-                            .temperatureC(parseDoubleStrict(t[3]))
-                            .pressureHpa(parseDoubleStrict(t[4]))
-                            .altitudeM(parseDoubleStrict(t[5]))
-                            .imuX(parseDoubleStrict(t[6]))
-                            .imuY(parseDoubleStrict(t[7]))
-                            .imuZ(parseDoubleStrict(t[8]))
-                            .turbulenceG(parseDoubleStrict(t[9]))
-                            .speedKn(parseDoubleStrict(t[13]))
-                            .build();
-
-                    buf.add(rec);
-                    recordsSaved++;
-
-                    if (first == null) first = time;
-                    last = time;
-
-                    if (buf.size() == BATCH_SIZE) {
-                        recordRepo.saveAll(buf);
-                        buf.clear();
-                    }
-
-                } catch (Exception ex) {
-                    badLines++;
-
-                    if (firstBadLineNumber == null) {
-                        firstBadLineNumber = lineNo;
-                        firstBadLinePreview = preview;
-                        firstBadLineReason = ex.getMessage();
-                        // len prvý zlý riadok ako WARN
-                        log.warn("Bad line {} in file '{}': {} | preview='{}'",
-                                lineNo, originalName, ex.getMessage(), preview);
-                    } else {
-                        // ďalšie ako DEBUG aby to nespamovalo
-                        log.debug("Bad line {} in file '{}': {}", lineNo, originalName, ex.getMessage());
-                    }
-
-                    // skip
-                }
-            }
+            // skrytý let sa dopĺňa na spravovanej inštancii – merge odpojeného letu
+            // s prázdnymi records by cez orphanRemoval zmazal zapísané záznamy
+            Flight savedFlight = staged
+                    ? transactionTemplate.execute(tx -> complete(flightRepo.getReferenceById(flight.getId()), ingest))
+                    : flightRepo.save(complete(flight, ingest));
+            published = true;
+            evictAfterCommit(savedFlight.getId());
+            userAnalytics.refreshAfterCommit(owner.getId());
+
+            return new IngestReport(
+                    savedFlight,
+                    ingest.recordsSaved(),
+                    ingest.badLines(),
+                    ingest.firstBadLineNumber(),
+                    ingest.firstBadLinePreview(),
+                    ingest.firstBadLineReason()
+            );
+        } finally {
+            if (staged && !published) purgeService.purgeAsync(flight.getId());
         }
+    }
 
-        if (!buf.isEmpty()) {
-            recordRepo.saveAll(buf);
-            buf.clear();
-        }
+    /** Výsledky ingestu do letu; zverejní ho (zruší skrytie rozpracovaného letu). */
+    private Flight complete(Flight flight, FlightLogSource ingest) {
+        flight.setStartTime(toDateTime(ingest.firstSecond()));
+        flight.setEndTime(toDateTime(ingest.lastSecond()));
+        flight.setRecordCount(ingest.recordsSaved());
+        flight.setDistanceKm(Math.round(ingest.totalDistanceKm() * 100.0) / 100.0);
+        flight.setStats(ingest.stats());
+        flight.setIngestedAt(LocalDateTime.now());
+        flight.setDeletedAt(null);
+        return flight;
+    }
 
-        if (recordsSaved == 0) {
-            throw new FlightUploadException(
-                    "Upload zlyhal: nenašiel som žiadne platné záznamy. Skontroluj formát súboru (stĺpce) a oddeľovanie (tab/medzera).",
-                    badLines,
-                    firstBadLineNumber,
-                    firstBadLinePreview,
-                    firstBadLineReason
-            );
+    /** Paralelný pipeline (ak je zapnutý), inak parsovanie na volajúcom vlákne. */
+    private FlightLogSource openSource(String originalName, InputStream in) throws IOException {
+        FlightIngestProperties.Pipeline cfg = ingestProps.pipeline();
+        if (cfg.enabled() && cfg.effectiveWorkers() > 1) {
+            return FlightLogPipeline.open(originalName, in, flightParseExecutor, cfg.effectiveWorkers(), cfg.blockLines());
         }
+        return FlightLogIngest.open(originalName, in);
+    }
 
-        flight.setStartTime(first != null ? first.atDate(LocalDate.now()) : null);
-        flight.setEndTime(last != null ? last.atDate(LocalDate.now()) : null);
-        flight.setRecordCount(recordsSaved);
-        flight.setDistanceKm(Math.round(totalDistanceKm * 100.0) / 100.0);
+    private void reportProgress(FlightLogSource ingest, IngestProgress progress) {
+        progress.update(ingest.linesRead(), ingest.recordsSaved(), ingest.badLines());
+    }
 
-        Flight savedFlight = flightRepo.save(flight);
+    private boolean useLoadData(FlightLogSource ingest) {
+        FlightIngestProperties.LoadData cfg = ingestProps.loadData();
+        return cfg.enabled()
+                && ingest.linesRead() >= cfg.thresholdLines()
+                && recordJdbc.isLocalInfileAvailable();
+    }
 
-        return new IngestReport(
-                savedFlight,
-                recordsSaved,
-                badLines,
-                firstBadLineNumber,
-                firstBadLinePreview,
-                firstBadLineReason
-        );
+    private LocalDateTime toDateTime(int secondOfDay) {
+        return secondOfDay >= 0 ? LocalTime.ofSecondOfDay(secondOfDay).atDate(LocalDate.now()) : null;
     }
 
     // ---------------- Security helpers ----------------
 
-    private void validateUpload(MultipartFile file) throws IOException {
-        String safeName = safeOriginalName(file.getOriginalFilename());
-        String ext = extractExt(safeName);
+    private void validateUploadMeta(String safeName, String ct) {
+        // flight.txt.gz → kontroluje sa .txt
+        String ext = extractExt(UploadCompression.ofFileName(safeName).stripExt(safeName));
 
         if (ext == null || !ALLOWED_EXT.contains(ext)) {
             throw new ResponseStatusException(
                     HttpStatus.UNSUPPORTED_MEDIA_TYPE,
-                    "Unsupported file extension. Allowed: .txt, .csv"
+                    "Unsupported file extension. Allowed: .txt, .csv (optionally compressed as .gz / .zst)"
             );
         }
 
-        String ct = Optional.ofNullable(file.getContentType()).orElse("");
         if (!ct.isBlank() && !ALLOWED_CONTENT_TYPES.contains(ct)) {
             throw new ResponseStatusException(
                     HttpStatus.UNSUPPORTED_MEDIA_TYPE,
                     "Unsupported Content-Type: " + ct
             );
         }
-
-        // Basic "text-only" peek: reject if contains NUL bytes (likely binary)
-        try (BufferedInputStream bis = new BufferedInputStream(file.getInputStream())) {
-            validatePlainTextPeek(bis);
-        }
     }
 
     private void validatePlainTextPeek(BufferedInputStream bis) throws IOException {
@@ -346,69 +520,387 @@ public class FlightService {
         return recordRepo.findByFlightId(flightId);
     }
 
+    /**
+     * Stránka záznamov v časovom okne [from, to] (null = bez obmedzenia), keyset podľa (time, id).
+     *
+     * @param cursor {@code nextCursor} z predošlej stránky ("HH:mm:ss,id"), null = od začiatku okna
+     */
     @Transactional(readOnly = true)
-    public FlightStatsDto getStats(Long flightId) {
-        List<FlightRecord> records = recordRepo.findByFlightId(flightId);
-        if (records.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No records found for flight " + flightId);
+    public FlightRecordPageDto getRecordPage(Long flightId, LocalTime from, LocalTime to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_LIMIT);
         }
 
-        DoubleSummaryStatistics temp = stats(records, FlightRecord::getTemperatureC);
-        DoubleSummaryStatistics pressure = stats(records, FlightRecord::getPressureHpa);
-        DoubleSummaryStatistics altitude = stats(records, FlightRecord::getAltitudeM);
-        DoubleSummaryStatistics turbulence = stats(records, FlightRecord::getTurbulenceG);
-        DoubleSummaryStatistics speed = stats(records, FlightRecord::getSpeedKn);
+        LocalTime windowFrom = from != null ? from : LocalTime.MIN;
+        LocalTime windowTo = to != null ? to : END_OF_DAY;
+
+        LocalTime afterTime = windowFrom;
+        long afterId = -1;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                int comma = cursor.lastIndexOf(',');
+                afterTime = LocalTime.parse(cursor.substring(0, comma));
+                afterId = Long.parseLong(cursor.substring(comma + 1));
+            } catch (RuntimeException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+            }
+            // kurzor pred začiatkom okna – okno má prednosť
+            if (afterTime.isBefore(windowFrom)) {
+                afterTime = windowFrom;
+                afterId = -1;
+            }
+        }
+
+        // o jeden viac, aby bolo jasné, či existuje ďalšia stránka
+        List<FlightRecord> rows = recordRepo.findPage(flightId, windowTo, afterTime, afterId, Limit.of(limit + 1));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            FlightRecord last = rows.get(limit - 1);
+            nextCursor = last.getTime() + "," + last.getId();
+        }
+        return new FlightRecordPageDto(rows, nextCursor);
+    }
+
+    /**
+     * Časové rady vybraných kanálov zredukované cez LTTB na najviac {@code points} bodov –
+     * jeden streamovaný prechod cez záznamy, pamäť nezávisí od dĺžky letu.
+     */
+    public FlightSeriesDto getSeries(Flight flight, List<String> channels, int points) {
+        if (points < 3 || points > MAX_SERIES_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "points must be between 3 and " + MAX_SERIES_POINTS);
+        }
+        List<String> chs = channels.stream().map(String::trim).filter(c -> !c.isEmpty()).distinct().toList();
+        if (chs.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No channels requested");
+        }
+        for (String ch : chs) {
+            if (!FlightRecordJdbcRepository.CHANNEL_COLUMNS.containsKey(ch)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown channel: " + ch + ". Allowed: " + FlightRecordJdbcRepository.CHANNEL_COLUMNS.keySet());
+            }
+        }
+
+        long n = flight.getRecordCount() != null ? flight.getRecordCount() : recordRepo.countByFlightId(flight.getId());
+
+        LttbDownsampler[] samplers = new LttbDownsampler[chs.size()];
+        for (int c = 0; c < samplers.length; c++) samplers[c] = new LttbDownsampler(n, points);
+
+        long[] index = {0};
+        recordJdbc.streamChannels(flight.getId(), chs, rs -> {
+            long i = index[0]++;
+            String time = rs.getString(1);
+            for (int c = 0; c < samplers.length; c++) {
+                double v = rs.getDouble(c + 2);
+                if (!rs.wasNull()) samplers[c].add(i, time, v);
+            }
+        });
+
+        Map<String, FlightSeriesDto.Series> series = new LinkedHashMap<>();
+        for (int c = 0; c < samplers.length; c++) {
+            samplers[c].finish();
+            series.put(chs.get(c), new FlightSeriesDto.Series(samplers[c].times(), samplers[c].values()));
+        }
+        return new FlightSeriesDto(flight.getId(), index[0], points, series);
+    }
 
+    /**
+     * Všetky záznamy letu v stĺpcovom tvare ({@link FlightRecordColumnsDto}). Číta sa streamom
+     * z JDBC rovno do primitívnych polí, bez FlightRecord entít.
+     */
+    public FlightRecordColumnsDto getRecordColumns(Flight flight) {
+        // latitude, longitude idú zvlášť ako double[], ostatné kanály ako float[]
+        String[] names = FlightRecordJdbcRepository.CHANNEL_COLUMNS.keySet().stream().skip(2).toArray(String[]::new);
+        int cap = flight.getRecordCount() != null ? flight.getRecordCount() : (int) recordRepo.countByFlightId(flight.getId());
+
+        long[][] id = {new long[cap]};
+        int[][] time = {new int[cap]};
+        double[][] coords = new double[2][cap];
+        float[][] values = new float[names.length][cap];
+        int[] n = {0};
+
+        // STREAM_COLUMNS: id, time, latitude, longitude, potom ostatné kanály v poradí CHANNEL_COLUMNS
+        recordJdbc.streamByFlightId(flight.getId(), rs -> {
+            int i = n[0]++;
+            if (i == id[0].length) {
+                // record_count nesedí (starý let) – dorásť
+                int grow = Math.max(16, i * 2);
+                id[0] = Arrays.copyOf(id[0], grow);
+                time[0] = Arrays.copyOf(time[0], grow);
+                for (int c = 0; c < coords.length; c++) coords[c] = Arrays.copyOf(coords[c], grow);
+                for (int c = 0; c < values.length; c++) values[c] = Arrays.copyOf(values[c], grow);
+            }
+            id[0][i] = rs.getLong(1);
+            Time t = rs.getTime(2);
+            time[0][i] = t != null ? t.toLocalTime().toSecondOfDay() : -1;
+            for (int c = 0; c < coords.length; c++) {
+                double v = rs.getDouble(c + 3);
+                coords[c][i] = rs.wasNull() ? Double.NaN : v;
+            }
+            for (int c = 0; c < values.length; c++) {
+                double v = rs.getDouble(c + 5);
+                values[c][i] = rs.wasNull() ? Float.NaN : (float) v;
+            }
+        });
+
+        int count = n[0];
+        Map<String, float[]> channels = new LinkedHashMap<>();
+        for (int c = 0; c < names.length; c++) {
+            channels.put(names[c], values[c].length == count ? values[c] : Arrays.copyOf(values[c], count));
+        }
+        return new FlightRecordColumnsDto(
+                flight.getId(), count,
+                id[0].length == count ? id[0] : Arrays.copyOf(id[0], count),
+                time[0].length == count ? time[0] : Arrays.copyOf(time[0], count),
+                coords[0].length == count ? coords[0] : Arrays.copyOf(coords[0], count),
+                coords[1].length == count ? coords[1] : Arrays.copyOf(coords[1], count),
+                channels);
+    }
+
+    /**
+     * Predpočítané agregáty v okne [from, to]. Úroveň (1/10/60 s) je najhrubšia, ktorá ešte
+     * spĺňa {@code resolution} (sekúnd na bod); bez nej sa odvodí z dĺžky okna / {@code points}.
+     *
+     * @param channels null/prázdne = všetky kanály
+     */
+    public FlightRollupsDto getRollups(Flight flight, LocalTime from, LocalTime to,
+                                       Integer resolution, Integer points, List<String> channels) {
+        LocalTime windowFrom = from != null ? from : LocalTime.MIN;
+        LocalTime windowTo = to != null ? to : END_OF_DAY;
+
+        int res;
+        if (resolution != null) {
+            res = resolution;
+        } else {
+            int p = points != null ? points : DEFAULT_ROLLUP_POINTS;
+            if (p < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "points must be positive");
+            // skutočný rozsah dát = okno ∩ [start, end] letu
+            int a = windowFrom.toSecondOfDay();
+            int b = windowTo.toSecondOfDay();
+            if (flight.getStartTime() != null) a = Math.max(a, flight.getStartTime().toLocalTime().toSecondOfDay());
+            if (flight.getEndTime() != null) b = Math.min(b, flight.getEndTime().toLocalTime().toSecondOfDay());
+            res = Math.max(1, (b - a + p - 1) / p);
+        }
+
+        int level = FlightRollupBuilder.LEVELS[0];
+        for (int l : FlightRollupBuilder.LEVELS) {
+            if (l <= res) level = l;
+        }
+
+        List<FlightRollupRow> rows = rollupJdbc.findByLevel(flight.getId(), level, windowFrom, windowTo);
+        if (rows.isEmpty() && !rollupJdbc.existsForFlight(flight.getId())) {
+            // let nahraný pred rollupmi
+            rows = rollupJdbc.aggregateFromRecords(flight.getId(), level, windowFrom, windowTo);
+        }
+
+        List<Integer> chIdx = new ArrayList<>();
+        List<String> all = Arrays.asList(FlightRollupRow.CHANNELS);
+        if (channels == null || channels.isEmpty()) {
+            for (int i = 0; i < all.size(); i++) chIdx.add(i);
+        } else {
+            for (String ch : channels) {
+                int i = all.indexOf(ch.trim());
+                if (i < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown channel: " + ch + ". Allowed: " + all);
+                }
+                if (!chIdx.contains(i)) chIdx.add(i);
+            }
+        }
+
+        List<FlightRollupsDto.Bucket> buckets = new ArrayList<>(rows.size());
+        for (FlightRollupRow r : rows) {
+            Map<String, FlightRollupsDto.Agg> aggs = new LinkedHashMap<>();
+            for (int i : chIdx) {
+                aggs.put(FlightRollupRow.CHANNELS[i], FlightRollupsDto.Agg.of(r.min[i], r.max[i], r.avg[i]));
+            }
+            buckets.add(new FlightRollupsDto.Bucket(
+                    LocalTime.ofSecondOfDay(r.bucketStart).toString(), r.count, aggs));
+        }
+        return new FlightRollupsDto(flight.getId(), level, buckets);
+    }
+
+    /**
+     * Zapíše všetky záznamy letu do {@code out} počas čítania z DB (JDBC stream, konštantná pamäť).
+     * Vlastníka treba overiť pred volaním; beží bez transakcie.
+     */
+    public void writeRecords(Long flightId, RecordFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        FlightRecordStreamWriter rows = new FlightRecordStreamWriter(writer, format);
+        rows.writeHeader();
+        try {
+            recordJdbc.streamByFlightId(flightId, rows);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Silný ETag pre read-only zdroje letu ({@code resource} = "flight", "records", ...).
+     * Let sa po ingeste nemení (len zmaže), takže stačí id + počet záznamov + čas ingestu;
+     * počíta sa len z riadku flights, flight_records sa nečíta.
+     */
+    public String etag(Flight flight, String resource) {
+        long ingested = flight.getIngestedAt() != null
+                ? flight.getIngestedAt().toEpochSecond(ZoneOffset.UTC)
+                : 0;
+        return "\"" + resource + "-" + flight.getId() + "-" + flight.getRecordCount()
+                + "-" + ingested + "-v" + REPRESENTATION_VERSION + "\"";
+    }
+
+    /** Štatistiky uložené pri ingeste – bez čítania flight_records. */
+    @Cacheable(cacheNames = CacheConfig.FLIGHT_STATS, key = "#flightId")
+    @Transactional(readOnly = true)
+    public FlightStatsDto getStats(Long flightId) {
         Flight flight = flightRepo.findById(flightId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Flight not found: " + flightId));
 
+        FlightStats s = flight.getStats();
+        if (s == null || s.getSampleCount() == null) {
+            // starý let, ktorý ešte nepreskočil backfill – agregát v DB
+            s = recordJdbc.aggregateStats(flightId);
+        }
+        if (s == null || s.getSampleCount() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No records found for flight " + flightId);
+        }
+
         Duration duration = (flight.getStartTime() != null && flight.getEndTime() != null)
                 ? Duration.between(flight.getStartTime(), flight.getEndTime())
                 : Duration.ZERO;
 
         return FlightStatsDto.builder()
-                .minTemperatureC(safeMin(temp))
-                .maxTemperatureC(safeMax(temp))
-                .avgTemperatureC(temp.getCount() > 0 ? temp.getAverage() : 0)
+                .minTemperatureC(orZero(s.getMinTemperatureC()))
+                .maxTemperatureC(orZero(s.getMaxTemperatureC()))
+                .avgTemperatureC(orZero(s.getAvgTemperatureC()))
 
-                .minPressureHpa(safeMin(pressure))
-                .maxPressureHpa(safeMax(pressure))
-                .avgPressureHpa(pressure.getCount() > 0 ? pressure.getAverage() : 0)
+                .minPressureHpa(orZero(s.getMinPressureHpa()))
+                .maxPressureHpa(orZero(s.getMaxPressureHpa()))
+                .avgPressureHpa(orZero(s.getAvgPressureHpa()))
 
-                .minAltitudeM(safeMin(altitude))
-                .maxAltitudeM(safeMax(altitude))
-                .avgAltitudeM(altitude.getCount() > 0 ? altitude.getAverage() : 0)
+                .minAltitudeM(orZero(s.getMinAltitudeM()))
+                .maxAltitudeM(orZero(s.getMaxAltitudeM()))
+                .avgAltitudeM(orZero(s.getAvgAltitudeM()))
 
-                .minTurbulenceG(safeMin(turbulence))
-                .maxTurbulenceG(safeMax(turbulence))
-                .avgTurbulenceG(turbulence.getCount() > 0 ? turbulence.getAverage() : 0)
+                .minTurbulenceG(orZero(s.getMinTurbulenceG()))
+                .maxTurbulenceG(orZero(s.getMaxTurbulenceG()))
+                .avgTurbulenceG(orZero(s.getAvgTurbulenceG()))
 
-                .minSpeedKn(safeMin(speed))
-                .maxSpeedKn(safeMax(speed))
-                .avgSpeedKn(speed.getCount() > 0 ? speed.getAverage() : 0)
+                .minSpeedKn(orZero(s.getMinSpeedKn()))
+                .maxSpeedKn(orZero(s.getMaxSpeedKn()))
+                .avgSpeedKn(orZero(s.getAvgSpeedKn()))
 
-                .recordCount(records.size())
+                .recordCount(s.getSampleCount())
                 .duration(String.format("%02d:%02d:%02d",
                         duration.toHours(), duration.toMinutesPart(), duration.toSecondsPart()))
                 .build();
     }
 
-    public List<Flight> findFlightsForUser(Long userId) {
-        return flightRepo.findAllByUserIdOrderByStartTimeDesc(userId);
+    public List<FlightSummary> findFlightsForUser(Long userId) {
+        return flightRepo.findAllByUserIdAndDeletedAtIsNullOrderByStartTimeDescIdDesc(userId);
+    }
+
+    /**
+     * Stránka letov používateľa, najnovšie prvé. Keyset podľa (start_time, id) – cena nezávisí
+     * od toho, koľko letov už klient prešiel. {@code from}/{@code to} sú dni vrátane.
+     *
+     * Lety bez start_time (staré dáta) idú na koniec, podľa id; ich kurzor je "null,id".
+     * Do filtra podľa dátumu nepatria.
+     */
+    public FlightPageDto getFlightPage(Long userId, LocalDate from, LocalDate to, String namePrefix,
+                                       Double minDistance, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_FLIGHT_PAGE_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_FLIGHT_PAGE_LIMIT);
+        }
+
+        LocalDateTime windowFrom = from != null ? from.atStartOfDay() : MIN_START_TIME;
+        LocalDateTime windowTo = to != null ? to.plusDays(1).atStartOfDay() : MAX_START_TIME;
+
+        // bez kurzora: všetko pred koncom okna (afterId = MIN → start_time presne na hranici už nie)
+        LocalDateTime afterStart = windowTo;
+        long afterId = Long.MIN_VALUE;
+        // kurzor už v letoch bez start_time
+        Long afterUndatedId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            LocalDateTime cursorStart;
+            long cursorId;
+            try {
+                int comma = cursor.lastIndexOf(',');
+                String start = cursor.substring(0, comma);
+                cursorStart = start.equals("null") ? null : LocalDateTime.parse(start);
+                cursorId = Long.parseLong(cursor.substring(comma + 1));
+            } catch (RuntimeException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+            }
+            if (cursorStart == null) {
+                afterUndatedId = cursorId;
+            } else if (cursorStart.isBefore(windowTo)) {
+                // kurzor za koncom okna – okno má prednosť
+                afterStart = cursorStart;
+                afterId = cursorId;
+            }
+        }
+
+        String prefix = null;
+        if (namePrefix != null && !namePrefix.isBlank()) {
+            prefix = namePrefix.trim()
+                    .replace("!", "!!")
+                    .replace("%", "!%")
+                    .replace("_", "!_") + "%";
+        }
+
+        // o jeden viac, aby bolo jasné, či existuje ďalšia stránka
+        List<FlightSummary> rows = new ArrayList<>(limit + 1);
+        if (afterUndatedId == null) {
+            rows.addAll(flightRepo.findPage(userId, windowFrom, afterStart, afterId,
+                    prefix, minDistance, Limit.of(limit + 1)));
+        }
+        if (rows.size() <= limit && from == null && to == null) {
+            rows.addAll(flightRepo.findPageWithoutStartTime(userId,
+                    afterUndatedId != null ? afterUndatedId : Long.MAX_VALUE,
+                    prefix, minDistance, Limit.of(limit + 1 - rows.size())));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            FlightSummary last = rows.get(limit - 1);
+            nextCursor = last.getStartTime() + "," + last.getId();
+        }
+        return new FlightPageDto(rows.stream().map(FlightDto::from).toList(), nextCursor);
     }
 
+    /** Z cache – vrátený let len čítať, na zmeny ho načítať cez repository. */
     public Flight getFlight(Long flightId, User requestor) {
-        Flight f = flightRepo.findById(flightId).orElseThrow(() -> notFound(flightId));
+        Flight f = flightLookup.find(flightId);
+        if (f == null || f.getDeletedAt() != null) throw notFound(flightId);
         if (!isOwnerOrAdmin(f, requestor)) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         return f;
     }
 
+    /**
+     * Let hneď zmizne (deleted_at), záznamy sa zmažú po chunkoch na pozadí až po commite.
+     */
     @Transactional
     public void deleteFlight(Long flightId, User requestor) {
-        Flight f = flightRepo.findById(flightId).orElseThrow(() -> notFound(flightId));
+        Flight f = flightRepo.findById(flightId)
+                .filter(x -> x.getDeletedAt() == null)
+                .orElseThrow(() -> notFound(flightId));
         if (!isOwnerOrAdmin(f, requestor)) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
-        recordRepo.deleteByFlightId(flightId);
-        flightRepo.delete(f);
+
+        if (flightRepo.markDeleted(flightId, LocalDateTime.now()) == 0) throw notFound(flightId);
+        evictAfterCommit(flightId);
+        userAnalytics.refreshAfterCommit(f.getUser().getId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                purgeService.purgeAsync(flightId);
+            }
+        });
+    }
+
+    private void evictAfterCommit(Long flightId) {
+        FlightLookup.evictNowAndAfterCommit(flightLookup, List.of(flightId));
     }
 
     private boolean isOwnerOrAdmin(Flight f, User u) {
@@ -419,42 +911,7 @@ public class FlightService {
         return new ResponseStatusException(HttpStatus.NOT_FOUND, "Flight " + id + " not found");
     }
 
-    private Double parseDoubleStrict(String s) {
-        if (s == null) return null;
-        s = s.replace(',', '.').trim();
-        if (s.isEmpty()) return null;
-        return Double.parseDouble(s);
-    }
-
-    private double haversine(double lat1, double lon1, double lat2, double lon2) {
-        final double R = 6371.0;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double rLat1 = Math.toRadians(lat1);
-        double rLat2 = Math.toRadians(lat2);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(rLat1) * Math.cos(rLat2) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
-    private DoubleSummaryStatistics stats(List<FlightRecord> records, java.util.function.Function<FlightRecord, Double> getter) {
-        DoubleStream stream = records.stream()
-                .map(getter)
-                .filter(Objects::nonNull)
-                .mapToDouble(Double::doubleValue);
-
-        return stream.summaryStatistics();
-    }
-
-    private double safeMin(DoubleSummaryStatistics s) {
-        return s.getCount() > 0 ? s.getMin() : 0;
-    }
-
-    private double safeMax(DoubleSummaryStatistics s) {
-        return s.getCount() > 0 ? s.getMax() : 0;
+    private double orZero(Double v) {
+        return v != null ? v : 0;
     }
 }
\ No newline at end of file
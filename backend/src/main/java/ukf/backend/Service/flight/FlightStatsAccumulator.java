@@ -0,0 +1,69 @@
+package ukf.backend.Service.flight;
+
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightStats;
+
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * min/max/avg piatich kanálov počítané priebežne počas ingestu, v poradí záznamov.
+ * Chýbajúce hodnoty (NaN) sa vynechajú – ako NULL v MIN/MAX/AVG.
+ */
+final class FlightStatsAccumulator {
+
+    private final DoubleSummaryStatistics temperature = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics pressure = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics altitude = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics turbulence = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics speed = new DoubleSummaryStatistics();
+    private long count;
+
+    /** Započíta záznamy [from, to) z dávky. */
+    void add(FlightRecordBatch b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(temperature, b.temperatureC(i));
+            accept(pressure, b.pressureHpa(i));
+            accept(altitude, b.altitudeM(i));
+            accept(turbulence, b.turbulenceG(i));
+            accept(speed, b.speedKn(i));
+        }
+        count += to - from;
+    }
+
+    private static void accept(DoubleSummaryStatistics s, double v) {
+        if (!Double.isNaN(v)) s.accept(v);
+    }
+
+    FlightStats toStats() {
+        return FlightStats.builder()
+                .sampleCount(count)
+                .minTemperatureC(min(temperature))
+                .maxTemperatureC(max(temperature))
+                .avgTemperatureC(avg(temperature))
+                .minPressureHpa(min(pressure))
+                .maxPressureHpa(max(pressure))
+                .avgPressureHpa(avg(pressure))
+                .minAltitudeM(min(altitude))
+                .maxAltitudeM(max(altitude))
+                .avgAltitudeM(avg(altitude))
+                .minTurbulenceG(min(turbulence))
+                .maxTurbulenceG(max(turbulence))
+                .avgTurbulenceG(avg(turbulence))
+                .minSpeedKn(min(speed))
+                .maxSpeedKn(max(speed))
+                .avgSpeedKn(avg(speed))
+                .build();
+    }
+
+    private static Double min(DoubleSummaryStatistics s) {
+        return s.getCount() > 0 ? s.getMin() : null;
+    }
+
+    private static Double max(DoubleSummaryStatistics s) {
+        return s.getCount() > 0 ? s.getMax() : null;
+    }
+
+    private static Double avg(DoubleSummaryStatistics s) {
+        return s.getCount() > 0 ? s.getAverage() : null;
+    }
+}
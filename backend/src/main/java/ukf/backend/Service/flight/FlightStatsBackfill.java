@@ -0,0 +1,53 @@
+package ukf.backend.Service.flight;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ukf.backend.Model.flight.FlightStats;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+
+import java.util.List;
+
+/**
+ * Doplní uložené štatistiky letom nahraným pred ich zavedením (jeden SQL agregát na let).
+ * Beží na pozadí po štarte; kým nedobehne, /stats pre takéto lety počíta agregát za behu.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightStatsBackfill implements ApplicationRunner {
+
+    private final FlightRepository flightRepo;
+    private final FlightRecordJdbcRepository recordJdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("flight-stats-backfill").start(this::backfill);
+    }
+
+    void backfill() {
+        List<Long> ids = flightRepo.findIdsWithoutStats();
+        if (ids.isEmpty()) return;
+
+        log.info("Backfilling stats for {} flights", ids.size());
+        int done = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> flightRepo.findById(id).ifPresent(f -> {
+                    FlightStats stats = recordJdbc.aggregateStats(id);
+                    // let bez záznamov: sampleCount=0, aby sa nebral znova
+                    f.setStats(stats != null ? stats : FlightStats.builder().sampleCount(0L).build());
+                }));
+                done++;
+            } catch (Exception ex) {
+                log.warn("Stats backfill failed for flight {}: {}", id, ex.getMessage());
+            }
+        }
+        log.info("Stats backfill finished: {}/{} flights", done, ids.size());
+    }
+}
@@ -0,0 +1,187 @@
+package ukf.backend.Service.flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets v jednom prechode nad streamom bodov jedného kanála.
+ *
+ * Počet vstupných bodov {@code n} musí byť známy vopred (record_count letu) – podľa neho sa
+ * rozdelia indexy 1..n-2 do {@code threshold - 2} košov; prvý a posledný bod ostávajú vždy.
+ * Hranice košov sú ako v pôvodnom LTTB ({@code floor(i * every) + 1}), počítané celočíselne.
+ * V pamäti sú naraz len dva koše (aktuálny a nasledujúci, ktorého priemer treba na výber).
+ *
+ * x = poradie záznamu v lete, y = hodnota kanála. Body s null hodnotou volajúci vynechá.
+ */
+final class LttbDownsampler {
+
+    /** Body jedného koša. */
+    private static final class Bucket {
+        int id = -1;
+        final List<String> time = new ArrayList<>();
+        double[] x = new double[16];
+        double[] y = new double[16];
+        int size;
+
+        void add(long index, String t, double v) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+            }
+            x[size] = index;
+            y[size] = v;
+            time.add(t);
+            size++;
+        }
+
+        void reset(int newId) {
+            id = newId;
+            time.clear();
+            size = 0;
+        }
+
+        double avgX() {
+            double s = 0;
+            for (int i = 0; i < size; i++) s += x[i];
+            return s / size;
+        }
+
+        double avgY() {
+            double s = 0;
+            for (int i = 0; i < size; i++) s += y[i];
+            return s / size;
+        }
+    }
+
+    private final boolean passthrough;
+    // every = span / buckets
+    private final long span;
+    private final long buckets;
+    private final int lastBucket;
+
+    private final List<String> outTime = new ArrayList<>();
+    private double[] outValue;
+    private int outSize;
+
+    // posledný vybraný bod (vrchol "a" trojuholníka)
+    private double ax, ay;
+
+    // posledný prijatý bod – do koša ide až keď príde ďalší (posledný bod letu sa nedelí)
+    private boolean hasPending;
+    private long pendingIndex;
+    private String pendingTime;
+    private double pendingValue;
+
+    private Bucket cur = new Bucket();
+    private Bucket next = new Bucket();
+
+    LttbDownsampler(long n, int threshold) {
+        this.passthrough = n <= threshold;
+        this.span = Math.max(1, n - 2);
+        this.buckets = threshold - 2;
+        this.lastBucket = threshold - 3;
+        this.outValue = new double[(int) Math.min(n, threshold)];
+    }
+
+    void add(long index, String time, double value) {
+        if (passthrough) {
+            emit(time, value);
+            return;
+        }
+
+        if (outSize == 0 && !hasPending) {
+            // prvý bod
+            emit(time, value);
+            ax = index;
+            ay = value;
+            return;
+        }
+
+        if (hasPending) {
+            push(pendingIndex, pendingTime, pendingValue);
+        }
+        hasPending = true;
+        pendingIndex = index;
+        pendingTime = time;
+        pendingValue = value;
+    }
+
+    private void push(long index, String time, double value) {
+        // kôš b obsahuje indexy floor(b * every) + 1 .. floor((b + 1) * every)
+        int b = (int) Math.min(lastBucket, Math.max(0, Math.ceilDiv(index * buckets, span) - 1));
+
+        if (cur.id < 0) {
+            cur.reset(b);
+        }
+        if (b == cur.id) {
+            cur.add(index, time, value);
+            return;
+        }
+
+        if (next.id < 0) {
+            next.reset(b);
+        }
+        if (b == next.id) {
+            next.add(index, time, value);
+            return;
+        }
+
+        // začal sa ďalší kôš → "cur" sa dá rozhodnúť podľa priemeru "next"
+        select(cur, next.avgX(), next.avgY());
+        Bucket done = cur;
+        cur = next;
+        next = done;
+        next.reset(b);
+        next.add(index, time, value);
+    }
+
+    /** Vyberie z koša bod s najväčším trojuholníkom (a, bod, priemer ďalšieho koša). */
+    private void select(Bucket bucket, double cx, double cy) {
+        if (bucket.size == 0) return;
+
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < bucket.size; i++) {
+            double area = Math.abs((ax - cx) * (bucket.y[i] - ay) - (ax - bucket.x[i]) * (cy - ay));
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+
+        emit(bucket.time.get(best), bucket.y[best]);
+        ax = bucket.x[best];
+        ay = bucket.y[best];
+    }
+
+    private void emit(String time, double value) {
+        if (outSize == outValue.length) {
+            outValue = Arrays.copyOf(outValue, Math.max(16, outSize * 2));
+        }
+        outTime.add(time);
+        outValue[outSize++] = value;
+    }
+
+    /** Dorieši otvorené koše a pridá posledný bod. */
+    void finish() {
+        if (passthrough || !hasPending) return;
+
+        if (next.id >= 0 && next.size > 0) {
+            select(cur, next.avgX(), next.avgY());
+            select(next, pendingIndex, pendingValue);
+        } else if (cur.id >= 0) {
+            select(cur, pendingIndex, pendingValue);
+        }
+        emit(pendingTime, pendingValue);
+        hasPending = false;
+    }
+
+    List<String> times() {
+        return outTime;
+    }
+
+    double[] values() {
+        return Arrays.copyOf(outValue, outSize);
+    }
+}
@@ -0,0 +1,81 @@
+package ukf.backend.Service.flight;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Kompresia uploadu – podľa prípony súboru (.gz, .zst) alebo hlavičky Content-Encoding.
+ * Dekomprimuje sa streamom priamo do parsera, nič sa nerozbaľuje na disk ani do pamäte.
+ */
+enum UploadCompression {
+
+    NONE(null, new byte[0]),
+    GZIP("gz", new byte[]{0x1f, (byte) 0x8b}),
+    ZSTD("zst", new byte[]{0x28, (byte) 0xb5, 0x2f, (byte) 0xfd});
+
+    private final String ext;
+    private final byte[] magic;
+
+    UploadCompression(String ext, byte[] magic) {
+        this.ext = ext;
+        this.magic = magic;
+    }
+
+    static UploadCompression ofFileName(String name) {
+        if (name != null) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            for (UploadCompression c : values()) {
+                if (c.ext != null && lower.endsWith("." + c.ext)) return c;
+            }
+        }
+        return NONE;
+    }
+
+    static UploadCompression ofContentEncoding(String encoding) {
+        if (encoding == null || encoding.isBlank()) return NONE;
+        return switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "identity" -> NONE;
+            case "gzip", "x-gzip" -> GZIP;
+            case "zstd" -> ZSTD;
+            default -> throw new ResponseStatusException(
+                    HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding: " + encoding
+            );
+        };
+    }
+
+    /** "flight.txt.gz" → "flight.txt" */
+    String stripExt(String name) {
+        if (this == NONE || name == null) return name;
+        return name.substring(0, name.length() - ext.length() - 1);
+    }
+
+    /** Overí magic bytes a obalí stream dekompresiou. */
+    InputStream decompress(BufferedInputStream in) throws IOException {
+        if (this == NONE) return in;
+
+        in.mark(magic.length);
+        byte[] head = in.readNBytes(magic.length);
+        in.reset();
+        if (!Arrays.equals(head, magic)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "File is not valid ." + ext + " data."
+            );
+        }
+
+        return switch (this) {
+            case GZIP -> new GZIPInputStream(in, 64 * 1024);
+            case ZSTD -> new ZstdInputStream(in);
+            case NONE -> in;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package ukf.backend.Service.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ukf.backend.Model.User.UserFlightAnalytics;
+import ukf.backend.Model.User.UserFlightAnalyticsRepository;
+import ukf.backend.Repository.user.UserAnalyticsJdbcRepository;
+import ukf.backend.dtos.UserAnalyticsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Analytika letov používateľa z predpočítaného riadku user_flight_analytics.
+ * Riadok sa prepočíta z flights po commite každého ingestu a zmazania letu; pri štarte
+ * sa doplnia všetci používatelia (jeden agregát GROUP BY user_id).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnalyticsService implements ApplicationRunner {
+
+    private final UserFlightAnalyticsRepository analyticsRepo;
+    private final UserAnalyticsJdbcRepository analyticsJdbc;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("user-analytics-backfill").start(() -> {
+            try {
+                int n = analyticsJdbc.refreshAll();
+                log.info("User analytics refreshed ({} rows)", n);
+            } catch (Exception ex) {
+                log.warn("User analytics backfill failed: {}", ex.getMessage());
+            }
+        });
+    }
+
+    public UserAnalyticsDTO getForUser(Long userId) {
+        UserFlightAnalytics a = analyticsRepo.findById(userId).orElse(null);
+        if (a == null) {
+            // používateľ, ktorý ešte nič nenahral, alebo backfill ešte nedobehol
+            analyticsJdbc.refreshUser(userId);
+            a = analyticsRepo.findById(userId).orElse(null);
+        }
+        return a != null ? toDto(a) : new UserAnalyticsDTO(0, 0, 0, 0);
+    }
+
+    /** userId → analytika pre všetkých používateľov, ktorí majú lety. */
+    public Map<Long, UserAnalyticsDTO> getAll() {
+        Map<Long, UserAnalyticsDTO> out = new LinkedHashMap<>();
+        for (UserFlightAnalytics a : analyticsRepo.findAll()) {
+            out.put(a.getUserId(), toDto(a));
+        }
+        return out;
+    }
+
+    /**
+     * Prepočet po commite aktuálnej transakcie (vidí už aj súbežne commitnuté lety);
+     * bez transakcie hneď.
+     */
+    public void refreshAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(userId);
+            }
+        });
+    }
+
+    private void refresh(Long userId) {
+        try {
+            analyticsJdbc.refreshUser(userId);
+        } catch (Exception ex) {
+            // len súhrn – ingest/zmazanie kvôli nemu nezlyhá, opraví ho ďalší prepočet
+            log.warn("User analytics refresh failed for user {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    private static UserAnalyticsDTO toDto(UserFlightAnalytics a) {
+        return new UserAnalyticsDTO(
+                a.getTotalFlights() != null ? a.getTotalFlights() : 0,
+                a.getTotalRecords() != null ? a.getTotalRecords() : 0,
+                a.getAverageDurationSeconds() != null ? a.getAverageDurationSeconds() : 0,
+                a.getTotalDistanceKm() != null ? Math.round(a.getTotalDistanceKm() * 100.0) / 100.0 : 0
+        );
+    }
+}
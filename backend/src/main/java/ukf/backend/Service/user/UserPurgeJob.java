@@ -0,0 +1,76 @@
+package ukf.backend.Service.user;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Stav mazania jedného používateľa. Zapisuje ho len vlákno purge, čítajú pollujúce requesty.
+ */
+@Getter
+public class UserPurgeJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /** FLIGHTS = záznamy a lety, ACCOUNT = zariadenia, tokeny, role a riadok používateľa. */
+    public enum Phase { FLIGHTS, ACCOUNT }
+
+    private final String id;
+    private final Long userId;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Phase phase = Phase.FLIGHTS;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    private volatile int flightsTotal;
+    private volatile int flightsDeleted;
+    private volatile long recordsDeleted;
+    private volatile int devicesDeleted;
+
+    private volatile String error;
+
+    UserPurgeJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    void started(int flightsTotal) {
+        this.flightsTotal = flightsTotal;
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void recordsDeleted(long n) {
+        recordsDeleted += n;
+    }
+
+    void flightDeleted() {
+        flightsDeleted++;
+    }
+
+    void account(int devicesDeleted) {
+        phase = Phase.ACCOUNT;
+        this.devicesDeleted = devicesDeleted;
+    }
+
+    void succeeded() {
+        finish(Status.SUCCEEDED);
+    }
+
+    void failed(String message) {
+        error = message;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status s) {
+        finishedAt = Instant.now();
+        status = s;
+    }
+
+    public boolean isFinished() {
+        Status s = status;
+        return s == Status.SUCCEEDED || s == Status.FAILED;
+    }
+}
@@ -0,0 +1,137 @@
+package ukf.backend.Service.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ukf.backend.Model.EmailConfirmationToken.EmailConfirmationTokenRepository;
+import ukf.backend.Model.User.UserRepository;
+import ukf.backend.Model.device.Device;
+import ukf.backend.Repository.device.DeviceRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Repository.user.UserAnalyticsJdbcRepository;
+import ukf.backend.Service.cloud.CloudSyncStateService;
+import ukf.backend.Service.flight.FlightPurgeService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Zmazanie používateľa adminom bez načítania jeho letov/záznamov do persistence contextu:
+ * <ol>
+ *     <li>v requeste: používateľ a jeho lety sa len označia (deleted_at) – hneď zmiznú,</li>
+ *     <li>na pozadí: každý let cez {@link FlightPurgeService#purge} po chunkoch, potom zariadenia,
+ *         tokeny, role a riadok používateľa bulk DELETE-mi.</li>
+ * </ol>
+ * Beží na {@code flightPurgeExecutor} (jedno vlákno spolu s mazaním letov). Nedokončený purge
+ * sa po reštarte spustí znova; registry jobov je len v pamäti.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserPurgeService implements ApplicationRunner {
+
+    private static final Duration JOB_TTL = Duration.ofHours(1);
+
+    private final UserRepository userRepo;
+    private final FlightRepository flightRepo;
+    private final DeviceRepository deviceRepo;
+    private final EmailConfirmationTokenRepository tokenRepo;
+    private final FlightPurgeService flightPurgeService;
+    private final UserAnalyticsJdbcRepository analyticsJdbc;
+    private final CloudSyncStateService cloudSyncState;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService flightPurgeExecutor;
+
+    private final Map<String, UserPurgeJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> pending = userRepo.findIdsPendingPurge();
+        if (pending.isEmpty()) return;
+
+        log.info("Resuming purge of {} deleted users", pending.size());
+        pending.forEach(this::schedule);
+    }
+
+    /** Skryje používateľa a naplánuje purge. 404 ak neexistuje alebo sa už maže. */
+    public UserPurgeJob submit(Long userId) {
+        evictExpired();
+
+        Boolean marked = transactionTemplate.execute(tx -> {
+            if (userRepo.markDeleted(userId, LocalDateTime.now()) == 0) return false;
+            flightPurgeService.markUserFlightsDeleted(userId);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(marked)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User " + userId + " not found");
+        }
+        return schedule(userId);
+    }
+
+    public UserPurgeJob getJob(String id) {
+        evictExpired();
+
+        UserPurgeJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Purge job " + id + " not found");
+        }
+        return job;
+    }
+
+    private UserPurgeJob schedule(Long userId) {
+        UserPurgeJob job = new UserPurgeJob(UUID.randomUUID().toString(), userId);
+        jobs.put(job.getId(), job);
+        flightPurgeExecutor.execute(() -> run(job));
+        log.info("User purge {} queued for user {}", job.getId(), userId);
+        return job;
+    }
+
+    private void run(UserPurgeJob job) {
+        Long userId = job.getUserId();
+        try {
+            List<Long> flightIds = flightRepo.findIdsByUserId(userId);
+            job.started(flightIds.size());
+
+            for (Long flightId : flightIds) {
+                flightPurgeService.purge(flightId, job::recordsDeleted);
+                job.flightDeleted();
+            }
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                // rozpracované cloud syncy zariadení (viazané na deviceId, nie FK) + ich staging na disku
+                cloudSyncState.deleteForDevices(deviceRepo.findAllByOwnerId(userId).stream()
+                        .map(Device::getDeviceId)
+                        .toList());
+                job.account(deviceRepo.deleteAllByOwnerIdInBulk(userId));
+                tokenRepo.deleteAllByUserIdInBulk(userId);
+                analyticsJdbc.deleteUser(userId);
+                userRepo.deleteRoleLinks(userId);
+                userRepo.deleteRowById(userId);
+            });
+            job.succeeded();
+
+            log.info("User {} purged: {} flights, {} records", userId, job.getFlightsDeleted(), job.getRecordsDeleted());
+
+        } catch (Exception ex) {
+            // používateľ ostáva označený – dokončí sa pri ďalšom štarte
+            log.error("User purge {} (user {}) failed", job.getId(), userId, ex);
+            job.failed("User purge failed");
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(JOB_TTL);
+        jobs.values().removeIf(j -> j.isFinished() && j.getFinishedAt().isBefore(cutoff));
+    }
+}
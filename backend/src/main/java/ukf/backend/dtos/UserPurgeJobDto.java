@@ -0,0 +1,37 @@
+package ukf.backend.dtos;
+
+import ukf.backend.Service.user.UserPurgeJob;
+
+import java.time.Instant;
+
+public record UserPurgeJobDto(
+        String id,
+        Long userId,
+        UserPurgeJob.Status status,
+        UserPurgeJob.Phase phase,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        int flightsTotal,
+        int flightsDeleted,
+        long recordsDeleted,
+        int devicesDeleted,
+        String error
+) {
+    public static UserPurgeJobDto from(UserPurgeJob j) {
+        return new UserPurgeJobDto(
+                j.getId(),
+                j.getUserId(),
+                j.getStatus(),
+                j.getPhase(),
+                j.getCreatedAt(),
+                j.getStartedAt(),
+                j.getFinishedAt(),
+                j.getFlightsTotal(),
+                j.getFlightsDeleted(),
+                j.getRecordsDeleted(),
+                j.getDevicesDeleted(),
+                j.getError()
+        );
+    }
+}
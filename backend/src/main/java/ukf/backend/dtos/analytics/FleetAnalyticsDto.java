@@ -0,0 +1,33 @@
+package ukf.backend.dtos.analytics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fleet analytika pre admin dashboard – snapshot nad všetkými živými letmi.
+ * {@code turbulenceBins} sú hranice tried histogramu {@link MonthStats#maxTurbulenceHistogram()}
+ * (max. turbulencia letu v g; tried je o jednu viac ako hraníc).
+ */
+public record FleetAnalyticsDto(
+        LocalDateTime generatedAt,
+        long computeMillis,
+        int partitions,
+        Totals totals,
+        List<RegionStats> regions,
+        List<MonthStats> months,
+        List<Double> turbulenceBins
+) {
+    public record Totals(long flights, double hoursFlown, double distanceKm) {}
+
+    public record RegionStats(String region, long flights, double hoursFlown, double distanceKm) {}
+
+    public record MonthStats(
+            String month,              // yyyy-MM podľa začiatku letu
+            long flights,
+            double hoursFlown,
+            double distanceKm,
+            Double avgTurbulenceG,
+            Double maxTurbulenceG,
+            long[] maxTurbulenceHistogram
+    ) {}
+}
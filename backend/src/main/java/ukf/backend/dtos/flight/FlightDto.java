@@ -1,6 +1,7 @@
 package ukf.backend.dtos.flight;
 
 import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightSummary;
 
 import java.time.LocalDateTime;
 
@@ -22,4 +23,15 @@ public record FlightDto(
                 f.getDistanceKm()
         );
     }
+
+    public static FlightDto from(FlightSummary f) {
+        return new FlightDto(
+                f.getId(),
+                f.getName(),
+                f.getStartTime(),
+                f.getEndTime(),
+                f.getRecordCount(),
+                f.getDistanceKm()
+        );
+    }
 }
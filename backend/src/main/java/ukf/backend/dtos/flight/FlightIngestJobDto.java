@@ -0,0 +1,41 @@
+package ukf.backend.dtos.flight;
+
+import ukf.backend.Service.flight.FlightIngestJob;
+import ukf.backend.Service.flight.FlightService;
+
+import java.time.Instant;
+
+public record FlightIngestJobDto(
+        String id,
+        FlightIngestJob.Status status,
+        String fileName,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        int linesProcessed,
+        int recordsSaved,
+        int badLines,
+        double linesPerSecond,
+        FlightIngestResultDto result,
+        String error,
+        String errorReason
+) {
+    public static FlightIngestJobDto from(FlightIngestJob j) {
+        FlightService.IngestReport report = j.getResult();
+        return new FlightIngestJobDto(
+                j.getId(),
+                j.getStatus(),
+                j.getFileName(),
+                j.getCreatedAt(),
+                j.getStartedAt(),
+                j.getFinishedAt(),
+                j.getLinesProcessed(),
+                j.getRecordsSaved(),
+                j.getBadLines(),
+                Math.round(j.linesPerSecond() * 10.0) / 10.0,
+                report != null ? FlightIngestResultDto.from(report) : null,
+                j.getError(),
+                j.getErrorReason()
+        );
+    }
+}
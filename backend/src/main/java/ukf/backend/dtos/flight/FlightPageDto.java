@@ -0,0 +1,12 @@
+package ukf.backend.dtos.flight;
+
+import java.util.List;
+
+/**
+ * Jedna stránka zoznamu letov (najnovšie prvé). {@code nextCursor} sa pošle späť ako {@code ?cursor=},
+ * null = ďalšie lety už nie sú.
+ */
+public record FlightPageDto(
+        List<FlightDto> flights,
+        String nextCursor
+) {}
@@ -0,0 +1,20 @@
+package ukf.backend.dtos.flight;
+
+import java.util.Map;
+
+/**
+ * Záznamy letu po stĺpcoch: jedno pole na kanál namiesto objektu na vzorku.
+ * Názvy polí sa neopakujú, v CBOR/MessagePack ide každá hodnota kanála ako float32.
+ * Súradnice ostávajú double – float32 má pri 48° len ~0,5 m presnosť a trasa by „schodovala“.
+ *
+ * {@code time} = sekunda dňa (-1 ak chýba), chýbajúca hodnota = NaN.
+ */
+public record FlightRecordColumnsDto(
+        Long flightId,
+        int count,
+        long[] id,
+        int[] time,
+        double[] latitude,
+        double[] longitude,
+        Map<String, float[]> channels
+) {}
@@ -0,0 +1,14 @@
+package ukf.backend.dtos.flight;
+
+import ukf.backend.Model.flight.FlightRecord;
+
+import java.util.List;
+
+/**
+ * Jedna stránka záznamov letu. {@code nextCursor} sa pošle späť ako {@code ?cursor=},
+ * null = ďalšie záznamy v okne už nie sú.
+ */
+public record FlightRecordPageDto(
+        List<FlightRecord> records,
+        String nextCursor
+) {}
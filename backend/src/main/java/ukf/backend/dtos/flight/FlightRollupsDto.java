@@ -0,0 +1,27 @@
+package ukf.backend.dtos.flight;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregované koše jednej úrovne ({@code levelSec} = 1, 10 alebo 60 s) v požadovanom okne.
+ */
+public record FlightRollupsDto(
+        Long flightId,
+        int levelSec,
+        List<Bucket> buckets
+) {
+    public record Bucket(String time, int count, Map<String, Agg> channels) {}
+
+    /** null = kanál nemá v koši žiadnu hodnotu. */
+    public record Agg(Double min, Double max, Double avg) {
+
+        public static Agg of(double min, double max, double avg) {
+            return new Agg(orNull(min), orNull(max), orNull(avg));
+        }
+
+        private static Double orNull(double v) {
+            return Double.isNaN(v) ? null : v;
+        }
+    }
+}
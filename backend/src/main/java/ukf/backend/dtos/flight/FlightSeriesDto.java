@@ -0,0 +1,17 @@
+package ukf.backend.dtos.flight;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zredukované časové rady pre grafy – pre každý kanál najviac {@code points} bodov.
+ * {@code time[i]} patrí k {@code value[i]}.
+ */
+public record FlightSeriesDto(
+        Long flightId,
+        long sourceRecords,
+        int points,
+        Map<String, Series> series
+) {
+    public record Series(List<String> time, double[] value) {}
+}
@@ -0,0 +1,134 @@
+package ukf.backend.Controller.flight;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import ukf.backend.Model.User.User;
+import ukf.backend.Model.User.UserService;
+import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightRecord;
+import ukf.backend.Service.flight.FlightIngestJobService;
+import ukf.backend.Service.flight.FlightService;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Podmienené GET: If-None-Match so správnym ETagom → 304 bez čítania záznamov;
+ * JSON, CBOR a MessagePack majú rôzne ETagy, takže sa navzájom nerevalidujú.
+ */
+class FlightControllerEtagTest {
+
+    private static final Principal PRINCIPAL = () -> "pilot@example.com";
+
+    private final FlightService flightService = mock(FlightService.class);
+    private final UserService userService = mock(UserService.class);
+    private final FlightController controller =
+            new FlightController(flightService, mock(FlightIngestJobService.class), userService);
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        Flight flight = Flight.builder().id(7L).recordCount(3).ingestedAt(LocalDateTime.of(2026, 5, 1, 9, 0)).build();
+        when(userService.getByEmail(PRINCIPAL.getName())).thenReturn(user);
+        when(flightService.getFlight(7L, user)).thenReturn(flight);
+        when(flightService.etag(any(), anyString())).thenCallRealMethod();
+        when(flightService.getRecords(anyLong())).thenReturn(List.of(new FlightRecord()));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        String etag = get("application/json", null).etag;
+
+        Response revalidated = get("application/json", etag);
+
+        assertThat(revalidated.status).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(revalidated.body).isNull();
+        assertThat(revalidated.etag).isEqualTo(etag);
+        assertThat(revalidated.cacheControl).isEqualTo("no-cache, private");
+        assertThat(revalidated.vary).isEqualTo(HttpHeaders.ACCEPT);
+        verify(flightService, times(1)).getRecords(7L);
+    }
+
+    @Test
+    void staleIfNoneMatchReturnsBody() {
+        Response response = get("application/json", "\"records-json-7-2-0-v1\"");
+
+        assertThat(response.status).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.body).hasSize(1);
+    }
+
+    @Test
+    void eachFormatHasItsOwnEtag() {
+        String json = get("application/json", null).etag;
+        String cbor = get("application/cbor", null).etag;
+        String msgpack = get("application/x-msgpack", null).etag;
+
+        assertThat(json).isNotEqualTo(cbor).isNotEqualTo(msgpack);
+        assertThat(cbor).isNotEqualTo(msgpack);
+        assertThat(get("*/*", null).etag).isEqualTo(json);
+        assertThat(get(null, null).etag).isEqualTo(json);
+        assertThat(get("application/msgpack", null).etag).isEqualTo(msgpack);
+
+        // JSON ETag pri CBOR požiadavke nesmie dať 304
+        Response cross = get("application/cbor", json);
+        assertThat(cross.status).isEqualTo(HttpStatus.OK.value());
+        assertThat(cross.etag).isEqualTo(cbor);
+    }
+
+    @Test
+    void representationFollowsAcceptOrderAndQuality() {
+        assertThat(FlightController.representation("application/cbor, application/json;q=0.5")).isEqualTo("cbor");
+        assertThat(FlightController.representation("application/json;q=0.1, application/x-msgpack")).isEqualTo("msgpack");
+        assertThat(FlightController.representation("application/cbor;q=0, */*")).isEqualTo("json");
+        assertThat(FlightController.representation("text/html, application/*;q=0.8")).isEqualTo("json");
+        assertThat(FlightController.representation("not a media type")).isEqualTo("json");
+    }
+
+    @Test
+    void notModifiedSkipsLoadingRecords() {
+        String etag = get("application/cbor", null).etag;
+        clearInvocations(flightService);
+
+        get("application/cbor", etag);
+
+        verify(flightService, never()).getRecords(anyLong());
+    }
+
+    private Response get(String accept, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights/7/records");
+        if (accept != null) request.addHeader(HttpHeaders.ACCEPT, accept);
+        if (ifNoneMatch != null) request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<List<FlightRecord>> entity =
+                controller.getFlightRecords(7L, new ServletWebRequest(request, response), PRINCIPAL);
+
+        if (entity == null) {
+            return new Response(response.getStatus(), null, response.getHeader(HttpHeaders.ETAG),
+                    response.getHeader(HttpHeaders.CACHE_CONTROL), response.getHeader(HttpHeaders.VARY));
+        }
+        HttpHeaders h = entity.getHeaders();
+        return new Response(entity.getStatusCode().value(), entity.getBody(), h.getETag(),
+                h.getCacheControl(), String.join(", ", h.getVary()));
+    }
+
+    private record Response(int status, List<FlightRecord> body, String etag, String cacheControl, String vary) {}
+}
@@ -0,0 +1,151 @@
+package ukf.backend.Repository.flight;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRecordSource;
+import ukf.backend.Service.flight.FlightLogParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: batch INSERT (rewriteBatchedStatements) vs. LOAD DATA LOCAL INFILE do flight_records
+ * proti MySQL z compose.yaml (port 3306 musí byť dostupný z hosta, schéma už vytvorená backendom).
+ *
+ * Záznamy sú sparsované vopred, meria sa len zápis. Každá iterácia zapíše
+ * flight_log_test.txt x {@code copies} riadkov do dočasného letu prvého používateľa
+ * a po iterácii ich zmaže.
+ *
+ * Spustenie (z priečinka backend, heslo z secrets/db_password.txt):
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-cp.txt
+ * java -Dbench.db.password="$(cat ../secrets/db_password.txt)" \
+ *      -cp "target/test-classes:target/classes:$(cat target/test-cp.txt)" ukf.backend.Repository.flight.FlightRecordBulkLoadBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FlightRecordBulkLoadBenchmark {
+
+    @Param("jdbc:mysql://localhost:3306/database?allowPublicKeyRetrieval=true&useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true&allowLoadLocalInfileInPath=/tmp/fdr-load-data")
+    public String jdbcUrl;
+
+    @Param("user")
+    public String user;
+
+    @Param("../project-assets/Device_code_template/flight_log_test.txt")
+    public String file;
+
+    @Param("20")
+    public int copies;
+
+    private SingleConnectionDataSource ds;
+    private FlightRecordJdbcRepository repo;
+    private JdbcTemplate jdbc;
+    private long flightId;
+    private final List<FlightRecordBatch> batches = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ds = new SingleConnectionDataSource(jdbcUrl, user, System.getProperty("bench.db.password", ""), true);
+        jdbc = new JdbcTemplate(ds);
+        repo = new FlightRecordJdbcRepository(jdbc);
+        if (!repo.isLocalInfileAvailable()) {
+            throw new IllegalStateException("LOAD DATA LOCAL is disabled (mysql --local-infile=1 + allowLoadLocalInfileInPath)");
+        }
+
+        Long userId = jdbc.queryForObject("SELECT MIN(id) FROM user", Long.class);
+        if (userId == null) throw new IllegalStateException("No user in DB – start the backend once (admin seed)");
+
+        GeneratedKeyHolder key = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO flights (user_id, name) VALUES (?, 'jmh-bulk-load')", Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, userId);
+            return ps;
+        }, key);
+        flightId = key.getKey().longValue();
+
+        List<String> lines = Files.readAllLines(Path.of(file), StandardCharsets.UTF_8);
+        FlightLogParser parser = new FlightLogParser();
+        FlightLogParser.Sample sample = new FlightLogParser.Sample();
+        FlightRecordBatch batch = new FlightRecordBatch(1000);
+        for (int c = 0; c < copies; c++) {
+            for (String line : lines.subList(1, lines.size())) {
+                byte[] b = line.trim().getBytes(StandardCharsets.UTF_8);
+                parser.parse(b, 0, b.length, sample);
+                batch.add(sample);
+                if (batch.isFull()) {
+                    batches.add(batch);
+                    batch = new FlightRecordBatch(1000);
+                }
+            }
+        }
+        if (!batch.isEmpty()) batches.add(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanRecords() {
+        jdbc.update("DELETE FROM flight_records WHERE flight_id = ?", flightId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbc.update("DELETE FROM flight_records WHERE flight_id = ?", flightId);
+        jdbc.update("DELETE FROM flights WHERE id = ?", flightId);
+        ds.destroy();
+    }
+
+    @Benchmark
+    public void batchInsert() {
+        for (FlightRecordBatch b : batches) {
+            repo.insertBatch(flightId, b);
+        }
+    }
+
+    @Benchmark
+    public long loadData() throws IOException {
+        return repo.loadData(flightId, replay(), new FlightRecordBatch(1000));
+    }
+
+    /** Prehrá predpripravené dávky ako FlightRecordSource. */
+    private FlightRecordSource replay() {
+        return new FlightRecordSource() {
+            int next;
+
+            @Override
+            public boolean fill(FlightRecordBatch target) {
+                if (next >= batches.size()) return false;
+                FlightRecordBatch src = batches.get(next++);
+                for (int i = 0; i < src.size(); i++) {
+                    target.addFrom(src, i);
+                }
+                return true;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FlightRecordBulkLoadBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.db.password=" + System.getProperty("bench.db.password", ""))
+                .build()).run();
+    }
+}
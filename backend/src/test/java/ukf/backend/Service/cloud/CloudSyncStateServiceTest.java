@@ -0,0 +1,152 @@
+package ukf.backend.Service.cloud;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ukf.backend.Model.cloud.CloudFlightSyncChunk;
+import ukf.backend.Repository.cloud.CloudFlightSyncChunkRepository;
+import ukf.backend.Repository.cloud.CloudFlightSyncRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checkpointy cloud syncu nad H2: po zlyhanom chunku ďalší pokus stiahne len chýbajúce chunky
+ * (a tie, ktorých súbor nesedí s checkpointom), stiahnuté sa spoja v poradí.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CloudSyncStateService.class)
+class CloudSyncStateServiceTest {
+
+    private static final String DEVICE = "fdr-1";
+    private static final String FLIGHT = "flight-42";
+
+    @MockitoBean CloudChunkDownloader downloader;
+    @MockitoBean CloudInboxProperties props;
+
+    @Autowired CloudSyncStateService syncState;
+    @Autowired CloudFlightSyncRepository syncRepo;
+    @Autowired CloudFlightSyncChunkRepository chunkRepo;
+    @Autowired TestEntityManager em;
+
+    @TempDir Path stagingDir;
+
+    /** Obsah chunkov v inboxe (index 1..n). */
+    private final List<String> inbox = List.of("first\n", "second\n", "third\n", "fourth\n", "fifth\n");
+    /** Indexy vyžiadané pri jednotlivých volaniach downloadera. */
+    private final List<List<Integer>> requested = new ArrayList<>();
+    private Set<Integer> failing = Set.of();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(props.stagingDir()).thenReturn(stagingDir.toString());
+        doAnswer(inv -> {
+            List<Integer> indexes = inv.getArgument(2);
+            CloudChunkDownloader.ChunkSink sink = inv.getArgument(3);
+            requested.add(List.copyOf(indexes));
+            for (int i : indexes) {
+                if (failing.contains(i)) throw new CloudChunkException("Chunk " + i + " failed", new IOException("boom"));
+                sink.accept(i, inbox.get(i - 1).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(downloader).downloadEach(eq(DEVICE), eq(FLIGHT), anyList(), any());
+    }
+
+    @Test
+    void failedChunkResumesFromFirstMissing() throws IOException {
+        failing = Set.of(3);
+        assertThatThrownBy(() -> syncState.stage(DEVICE, FLIGHT, 5)).isInstanceOf(CloudChunkException.class);
+
+        Long syncId = syncRepo.findByDeviceIdAndFlightId(DEVICE, FLIGHT).orElseThrow().getId();
+        assertThat(chunkRepo.findAllBySyncIdOrderByChunkNo(syncId))
+                .extracting(CloudFlightSyncChunk::getChunkNo)
+                .containsExactly(1, 2);
+
+        failing = Set.of();
+        CloudSyncStateService.StagedFlight staged = syncState.stage(DEVICE, FLIGHT, 5);
+
+        assertThat(requested).containsExactly(List.of(1, 2, 3, 4, 5), List.of(3, 4, 5));
+        assertThat(staged.syncId()).isEqualTo(syncId);
+        assertThat(staged.importedFlightId()).isNull();
+        assertThat(read(staged)).isEqualTo(String.join("", inbox));
+        assertThat(chunkRepo.findAllBySyncIdOrderByChunkNo(syncId)).hasSize(5);
+    }
+
+    @Test
+    void chunkNotMatchingCheckpointIsDownloadedAgain() throws IOException {
+        CloudSyncStateService.StagedFlight first = syncState.stage(DEVICE, FLIGHT, 5);
+
+        // rovnaká veľkosť, iný obsah (SHA-256) a zmazaný súbor
+        Files.writeString(first.chunkFiles().get(1), "SECOND\n");
+        Files.delete(first.chunkFiles().get(3));
+
+        CloudSyncStateService.StagedFlight again = syncState.stage(DEVICE, FLIGHT, 5);
+
+        assertThat(requested).containsExactly(List.of(1, 2, 3, 4, 5), List.of(2, 4));
+        assertThat(read(again)).isEqualTo(String.join("", inbox));
+    }
+
+    @Test
+    void importedFlightIsNotDownloadedAgain() throws IOException {
+        CloudSyncStateService.StagedFlight staged = syncState.stage(DEVICE, FLIGHT, 5);
+        syncState.markImported(staged.syncId(), 77L);
+        em.clear(); // v produkcii je ďalší sync nová transakcia
+        requested.clear();
+
+        CloudSyncStateService.StagedFlight again = syncState.stage(DEVICE, FLIGHT, 5);
+
+        assertThat(again.importedFlightId()).isEqualTo(77L);
+        assertThat(requested).isEmpty();
+    }
+
+    @Test
+    void finishDeletesStateAndStagedChunks() throws IOException {
+        CloudSyncStateService.StagedFlight staged = syncState.stage(DEVICE, FLIGHT, 5);
+        Path dir = staged.chunkFiles().get(0).getParent();
+
+        syncState.finish(staged.syncId());
+
+        assertThat(syncRepo.findByDeviceIdAndFlightId(DEVICE, FLIGHT)).isEmpty();
+        assertThat(chunkRepo.findAllBySyncIdOrderByChunkNo(staged.syncId())).isEmpty();
+        assertThat(dir).doesNotExist();
+    }
+
+    @Test
+    void flightWithoutChunksNeedsNoDownload() throws IOException {
+        CloudSyncStateService.StagedFlight staged = syncState.stage(DEVICE, FLIGHT, 0);
+
+        assertThat(staged.chunkFiles()).isEmpty();
+        verify(downloader, never()).downloadEach(any(), any(), anyList(), any());
+    }
+
+    private String read(CloudSyncStateService.StagedFlight staged) throws IOException {
+        try (InputStream in = syncState.openStaged(staged)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
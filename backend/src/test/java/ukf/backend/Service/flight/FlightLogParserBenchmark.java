@@ -0,0 +1,163 @@
+package ukf.backend.Service.flight;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ukf.backend.Model.flight.FlightRecordBatch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: pôvodný String parser (trim + split("\\s+") + LocalTime.parse + boxed Double)
+ * vs. bajtový {@link FlightLogLineReader} + {@link FlightLogParser}.
+ *
+ * Vstup je project-assets/Device_code_template/flight_log_test.txt zopakovaný {@code copies}-krát.
+ *
+ * Spustenie (z priečinka backend):
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-cp.txt
+ * java -cp "target/test-classes:target/classes:$(cat target/test-cp.txt)" ukf.backend.Service.flight.FlightLogParserBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightLogParserBenchmark {
+
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("H:mm:ss");
+    private static final int BATCH_SIZE = 1000;
+
+    @Param("../project-assets/Device_code_template/flight_log_test.txt")
+    public String file;
+
+    @Param("100")
+    public int copies;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] src = Files.readAllBytes(Path.of(file));
+
+        // header len raz, dáta opakovane
+        int headerEnd = 0;
+        while (headerEnd < src.length && src[headerEnd] != '\n') headerEnd++;
+        headerEnd = Math.min(headerEnd + 1, src.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(src.length * copies);
+        out.write(src, 0, headerEnd);
+        for (int i = 0; i < copies; i++) {
+            out.write(src, headerEnd, src.length - headerEnd);
+        }
+        data = out.toByteArray();
+    }
+
+    /**
+     * Obe strany robia to isté: každý riadok skončí v {@link FlightRecordBatch} (NaN = null),
+     * plná dávka ide do Blackhole. Legacy strana parsuje po starom, len bez JPA entity.
+     */
+    @Benchmark
+    public void legacyStringParser(Blackhole bh) throws IOException {
+        int ok = 0, bad = 0;
+        FlightRecordBatch batch = new FlightRecordBatch(BATCH_SIZE);
+        FlightLogParser.Sample sample = new FlightLogParser.Sample();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8))) {
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) continue;
+                try {
+                    String[] t = trimmed.split("\\s+");
+                    if (t.length < FlightLogParser.COLS) {
+                        throw new IllegalArgumentException("Not enough columns: " + t.length);
+                    }
+                    sample.secondOfDay = LocalTime.parse(t[0], TIME_FMT).toSecondOfDay();
+                    sample.latitude = orNaN(parseDoubleStrict(t[1]));
+                    sample.longitude = orNaN(parseDoubleStrict(t[2]));
+                    sample.temperatureC = orNaN(parseDoubleStrict(t[3]));
+                    sample.pressureHpa = orNaN(parseDoubleStrict(t[4]));
+                    sample.altitudeM = orNaN(parseDoubleStrict(t[5]));
+                    sample.imuX = orNaN(parseDoubleStrict(t[6]));
+                    sample.imuY = orNaN(parseDoubleStrict(t[7]));
+                    sample.imuZ = orNaN(parseDoubleStrict(t[8]));
+                    sample.turbulenceG = orNaN(parseDoubleStrict(t[9]));
+                    sample.speedKn = orNaN(parseDoubleStrict(t[13]));
+                    add(batch, sample, bh);
+                    ok++;
+                } catch (Exception ex) {
+                    bad++;
+                }
+            }
+        }
+        bh.consume(batch);
+        bh.consume(ok);
+        bh.consume(bad);
+    }
+
+    @Benchmark
+    public void byteParser(Blackhole bh) throws IOException {
+        int ok = 0, bad = 0;
+        FlightRecordBatch batch = new FlightRecordBatch(BATCH_SIZE);
+        FlightLogLineReader lines = new FlightLogLineReader(new ByteArrayInputStream(data));
+        FlightLogParser parser = new FlightLogParser();
+        FlightLogParser.Sample sample = new FlightLogParser.Sample();
+
+        lines.next();
+        while (lines.next()) {
+            byte[] b = lines.buffer();
+            int from = FlightLogParser.trimStart(b, lines.start(), lines.end());
+            int to = FlightLogParser.trimEnd(b, from, lines.end());
+            if (from == to) continue;
+            try {
+                parser.parse(b, from, to, sample);
+                add(batch, sample, bh);
+                ok++;
+            } catch (Exception ex) {
+                bad++;
+            }
+        }
+        bh.consume(batch);
+        bh.consume(ok);
+        bh.consume(bad);
+    }
+
+    private static void add(FlightRecordBatch batch, FlightLogParser.Sample sample, Blackhole bh) {
+        batch.add(sample);
+        if (batch.isFull()) {
+            bh.consume(batch);
+            batch.clear();
+        }
+    }
+
+    private static double orNaN(Double v) {
+        return v != null ? v : Double.NaN;
+    }
+
+    private static Double parseDoubleStrict(String s) {
+        s = s.replace(',', '.').trim();
+        if (s.isEmpty()) return null;
+        return Double.parseDouble(s);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FlightLogParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,213 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.Test;
+import ukf.backend.Model.flight.FlightRecordBatch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bajtový parser ({@link FlightLogIngest} + {@link FlightLogParser}) proti pôvodnému String parseru
+ * (trim + split("\\s+") + LocalTime.parse + Double.parseDouble): hodnoty, null stĺpce,
+ * počet zlých riadkov, prvý zlý riadok (číslo, náhľad, dôvod) aj vzdialenosť.
+ */
+class FlightLogParserTest {
+
+    private static final String HEADER =
+            "Time\tLatitude\tLongitude\tTemperature(C)\tPressure(hPa)\tAltitude(m)\taX(g)\taY(g)\taZ(g)\tTurbulence\tX(deg)\tY(deg)\tZ(deg)\tSpeed(kn)\n";
+
+    private static final String OK_1 = "09:04:09\t48.284515\t18.129082\t17.74\t\t1030.16\t\t135.16\t\t0.147\t0.001\t1.049\t0.314\t\t0.07\t-7.98\t82.02\t0.01";
+    private static final String OK_2 = "9:04:10 48,2846 18,1291 17,8 1030,1 136 -0.068 +0.034 1.075 3.4e-1 1.82 3.61 85.96 1.5E1";
+
+    @Test
+    void sameRecordsAndReportAsLegacyParser() throws IOException {
+        String file = HEADER
+                + OK_1 + "\n"
+                + "\n"
+                + "   \t  \n"
+                + OK_2 + "\r\n"
+                + "  " + OK_1.replace("09:04:09", "09:04:11") + "   \n"
+                + "09:04:12 1 2 3\n"                                              // málo stĺpcov
+                + "25:00:00 48.28 18.12 17 1030 135 0 0 1 0.3 0 0 0 0\n"          // zlý čas
+                + "9:4:13 48.28 18.12 17 1030 135 0 0 1 0.3 0 0 0 0\n"            // zlý čas (formát)
+                + "09:04:14 48.28 18.12 abc 1030 135 0 0 1 0.3 0 0 0 0\n"         // zlé číslo
+                + "09:04:15 48.28 18.12 ľ 1030 135 0 0 1 0.3 0 0 0 0\n"           // UTF-8 v čísle
+                + "09:04:16 48.2851 18.1292 1d 0x1p3 0.12345678901234567890 1e400 -0 .5 5. 0 0 0 12345678901234567890\n"
+                + "09:04:17 48.2852 18.1293 17 1030 135 0 0 1 0.3 0 0 0 7 extra columns here\n"
+                + "09:04:18 48.2853 18.1294 \u0001 1030 \u0002\u0003 0 0 1 0.3 0 0 0 7\n" // null hodnoty
+                + "09:04:19 \u0001 18.1295 17 1030 135 0 0 1 0.3 0 0 0 7\n"       // null latitude
+                + "09:04:20 48.2855 18.1296 17 1030 135 0 0 1 0.3 0 0 0 7\n"
+                + "09:04:21 48.2856 18.1297 x".repeat(20) + "\n"                  // dlhý zlý riadok
+                + OK_1.replace("09:04:09", "09:04:22");                           // bez \n na konci
+
+        Legacy expected = Legacy.parse(file);
+        Actual actual = Actual.parse(file);
+
+        assertThat(actual.records).hasSize(expected.records.size());
+        for (int i = 0; i < expected.records.size(); i++) {
+            assertThat(actual.records.get(i)).as("record %d", i).containsExactly(expected.records.get(i));
+        }
+        assertThat(actual.badLines).isEqualTo(expected.badLines);
+        assertThat(actual.firstBadLineNumber).isEqualTo(expected.firstBadLineNumber);
+        assertThat(actual.firstBadLinePreview).isEqualTo(expected.firstBadLinePreview);
+        assertThat(actual.firstBadLineReason).isEqualTo(expected.firstBadLineReason);
+        assertThat(actual.linesRead).isEqualTo(expected.linesRead);
+        assertThat(actual.totalDistanceKm).isEqualTo(expected.totalDistanceKm);
+    }
+
+    @Test
+    void controlCharacterTokenIsNullValueNotBadLine() throws IOException {
+        Actual actual = Actual.parse(HEADER + "09:04:18 48.2853 18.1294 \u0001 1030 135 0 0 1 0.3 0 0 0 7\n");
+
+        assertThat(actual.badLines).isZero();
+        assertThat(actual.records).hasSize(1);
+        assertThat(actual.records.get(0)[3]).isNull();
+        assertThat(actual.records.get(0)[4]).isEqualTo(1030.0);
+    }
+
+    @Test
+    void firstBadLineIsReportedWithLineNumberPreviewAndReason() throws IOException {
+        String longBad = "x".repeat(250);
+        Actual actual = Actual.parse(HEADER + OK_1 + "\n\n" + longBad + "\n09:04:12 1 2 3\n");
+
+        assertThat(actual.records).hasSize(1);
+        assertThat(actual.badLines).isEqualTo(2);
+        assertThat(actual.firstBadLineNumber).isEqualTo(4);
+        assertThat(actual.firstBadLinePreview).isEqualTo("x".repeat(200) + "...");
+        assertThat(actual.firstBadLineReason).isEqualTo("Not enough columns: 1 < 14");
+    }
+
+    /** Záznam ako Object[]: čas + 10 kanálov (null = chýbajúca hodnota). */
+    private static Object[] row(LocalTime time, Double... values) {
+        Object[] r = new Object[1 + values.length];
+        r[0] = time;
+        System.arraycopy(values, 0, r, 1, values.length);
+        return r;
+    }
+
+    private static Double nullIfNaN(double v) {
+        return Double.isNaN(v) ? null : v;
+    }
+
+    // ---------------- nový parser ----------------
+
+    private static final class Actual {
+        final List<Object[]> records = new ArrayList<>();
+        int badLines;
+        Integer firstBadLineNumber;
+        String firstBadLinePreview;
+        String firstBadLineReason;
+        int linesRead;
+        double totalDistanceKm;
+
+        static Actual parse(String file) throws IOException {
+            Actual a = new Actual();
+            FlightLogIngest ingest = FlightLogIngest.open("test.txt",
+                    new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+            FlightRecordBatch batch = new FlightRecordBatch(3); // viac dávok
+            while (true) {
+                batch.clear();
+                if (!ingest.fill(batch)) break;
+                for (int i = 0; i < batch.size(); i++) {
+                    a.records.add(row(batch.time(i),
+                            nullIfNaN(batch.latitude(i)), nullIfNaN(batch.longitude(i)),
+                            nullIfNaN(batch.temperatureC(i)), nullIfNaN(batch.pressureHpa(i)),
+                            nullIfNaN(batch.altitudeM(i)), nullIfNaN(batch.imuX(i)),
+                            nullIfNaN(batch.imuY(i)), nullIfNaN(batch.imuZ(i)),
+                            nullIfNaN(batch.turbulenceG(i)), nullIfNaN(batch.speedKn(i))));
+                }
+            }
+            a.badLines = ingest.badLines();
+            a.firstBadLineNumber = ingest.firstBadLineNumber();
+            a.firstBadLinePreview = ingest.firstBadLinePreview();
+            a.firstBadLineReason = ingest.firstBadLineReason();
+            a.linesRead = ingest.linesRead();
+            a.totalDistanceKm = ingest.totalDistanceKm();
+            return a;
+        }
+    }
+
+    // ---------------- pôvodný parser (FlightService pred bajtovým parserom) ----------------
+
+    private static final class Legacy {
+        private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("H:mm:ss");
+
+        final List<Object[]> records = new ArrayList<>();
+        int badLines;
+        Integer firstBadLineNumber;
+        String firstBadLinePreview;
+        String firstBadLineReason;
+        int linesRead;
+        double totalDistanceKm;
+
+        static Legacy parse(String file) throws IOException {
+            Legacy l = new Legacy();
+            Double prevLat = null, prevLon = null;
+
+            try (BufferedReader br = new BufferedReader(new StringReader(file))) {
+                br.readLine();
+                String line;
+                int lineNo = 1;
+
+                while ((line = br.readLine()) != null) {
+                    lineNo++;
+
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty()) continue;
+
+                    String preview = trimmed.length() > 200 ? trimmed.substring(0, 200) + "..." : trimmed;
+
+                    try {
+                        String[] t = trimmed.split("\\s+");
+                        if (t.length < FlightLogParser.COLS) {
+                            throw new IllegalArgumentException("Not enough columns: " + t.length + " < " + FlightLogParser.COLS);
+                        }
+
+                        LocalTime time = LocalTime.parse(t[0], TIME_FMT);
+
+                        Double lat = parseDoubleStrict(t[1]);
+                        Double lon = parseDoubleStrict(t[2]);
+
+                        if (prevLat != null && prevLon != null && lat != null && lon != null) {
+                            l.totalDistanceKm += FlightLogIngest.haversine(prevLat, prevLon, lat, lon);
+                        }
+                        prevLat = lat;
+                        prevLon = lon;
+
+                        l.records.add(row(time, lat, lon,
+                                parseDoubleStrict(t[3]), parseDoubleStrict(t[4]), parseDoubleStrict(t[5]),
+                                parseDoubleStrict(t[6]), parseDoubleStrict(t[7]), parseDoubleStrict(t[8]),
+                                parseDoubleStrict(t[9]), parseDoubleStrict(t[13])));
+
+                    } catch (Exception ex) {
+                        l.badLines++;
+                        if (l.firstBadLineNumber == null) {
+                            l.firstBadLineNumber = lineNo;
+                            l.firstBadLinePreview = preview;
+                            l.firstBadLineReason = ex.getMessage();
+                        }
+                    }
+                }
+                l.linesRead = lineNo;
+            }
+            return l;
+        }
+
+        private static Double parseDoubleStrict(String s) {
+            if (s == null) return null;
+            s = s.replace(',', '.').trim();
+            if (s.isEmpty()) return null;
+            return Double.parseDouble(s);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ukf.backend.Model.flight.FlightRecordBatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link FlightLogPipeline} musí dať to isté ako {@link FlightLogIngest}: záznamy v poradí súboru,
+ * rovnaký report aj vzdialenosť – aj keď bloky dobehnú v inom poradí a riadky sú rozsekané
+ * medzi čítania zo streamu.
+ */
+class FlightLogPipelineTest {
+
+    private ExecutorService pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    @Test
+    void sameResultAsSingleThreadedIngest() throws IOException {
+        byte[] file = sampleFile(2000);
+        pool = Executors.newFixedThreadPool(4);
+
+        Result expected = Result.of(FlightLogIngest.open("test.txt", new ByteArrayInputStream(file)));
+        Result actual = Result.of(FlightLogPipeline.open("test.txt", new TrickleInputStream(file, 7), pool, 4, 16));
+
+        assertThat(actual.records).hasSize(expected.records.size());
+        for (int i = 0; i < expected.records.size(); i++) {
+            assertThat(actual.records.get(i)).as("record %d", i).isEqualTo(expected.records.get(i));
+        }
+        assertThat(actual.report).isEqualTo(expected.report);
+        assertThat(actual.totalDistanceKm).isEqualTo(expected.totalDistanceKm);
+    }
+
+    @Test
+    void blocksFinishedOutOfOrderAreWrittenInFileOrder() throws IOException {
+        byte[] file = sampleFile(300);
+        pool = new ReversedDelayExecutor();
+
+        Result expected = Result.of(FlightLogIngest.open("test.txt", new ByteArrayInputStream(file)));
+        Result actual = Result.of(FlightLogPipeline.open("test.txt", new ByteArrayInputStream(file), pool, 4, 10));
+
+        assertThat(actual.records).isEqualTo(expected.records);
+        assertThat(actual.report).isEqualTo(expected.report);
+        assertThat(actual.totalDistanceKm).isEqualTo(expected.totalDistanceKm);
+    }
+
+    @Test
+    void lineLongerThanReadBufferIsStitchedTogether() throws IOException {
+        String longBad = "09:00:00 " + "1".repeat(100_000);
+        byte[] file = (header() + line(0) + "\n" + longBad + "\n" + line(1) + "\n").getBytes(StandardCharsets.US_ASCII);
+        pool = Executors.newFixedThreadPool(2);
+
+        Result actual = Result.of(FlightLogPipeline.open("test.txt", new TrickleInputStream(file, 4096), pool, 2, 1));
+
+        assertThat(actual.records).hasSize(2);
+        assertThat(actual.report).containsExactly(4, 2, 1, 3, "Not enough columns: 2 < 14");
+    }
+
+    // ---------------- vstup ----------------
+
+    /** Platné riadky s občasným zlým, prázdnym, CRLF a riadkom bez súradníc. */
+    private static byte[] sampleFile(int lines) {
+        StringBuilder sb = new StringBuilder(header());
+        for (int i = 0; i < lines; i++) {
+            switch (i % 37) {
+                case 5 -> sb.append("bad line ").append(i).append('\n');
+                case 11 -> sb.append("   \n");
+                case 17 -> sb.append(line(i)).append("\r\n");
+                case 23 -> sb.append(line(i).replaceFirst("\\t48\\.[0-9]+", "\t\u0001")).append('\n');
+                default -> sb.append(line(i)).append('\n');
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String header() {
+        return "Time\tLatitude\tLongitude\tTemperature(C)\tPressure(hPa)\tAltitude(m)\taX(g)\taY(g)\taZ(g)\tTurbulence\tX(deg)\tY(deg)\tZ(deg)\tSpeed(kn)\n";
+    }
+
+    private static String line(int i) {
+        int t = 9 * 3600 + i;
+        return String.format("%d:%02d:%02d\t48.%06d\t18.%06d\t%d.5\t1030,%d\t%d\t0.1\t-0.2\t1.0%d\t0.%d\t0\t0\t0\t%d",
+                t / 3600, (t / 60) % 60, t % 60, 284515 + i * 7, 129082 + i * 3, 17 + i % 5, i % 10, 135 + i, i % 10, i % 100, i % 40);
+    }
+
+    // ---------------- výstup ----------------
+
+    private record Result(List<List<Object>> records, List<Object> report, double totalDistanceKm) {
+
+        static Result of(FlightLogSource source) throws IOException {
+            List<List<Object>> records = new ArrayList<>();
+            try (source) {
+                FlightRecordBatch batch = new FlightRecordBatch(50);
+                while (true) {
+                    batch.clear();
+                    if (!source.fill(batch)) break;
+                    for (int i = 0; i < batch.size(); i++) {
+                        records.add(List.of(batch.secondOfDay(i),
+                                batch.latitude(i), batch.longitude(i), batch.temperatureC(i), batch.pressureHpa(i),
+                                batch.altitudeM(i), batch.imuX(i), batch.imuY(i), batch.imuZ(i),
+                                batch.turbulenceG(i), batch.speedKn(i)));
+                    }
+                }
+            }
+            List<Object> report = new ArrayList<>();
+            report.add(source.linesRead());
+            report.add(source.recordsSaved());
+            report.add(source.badLines());
+            report.add(source.firstBadLineNumber());
+            report.add(source.firstBadLineReason());
+            return new Result(records, report, source.totalDistanceKm());
+        }
+    }
+
+    /** Vracia najviac {@code max} bajtov na jedno read() – riadky sa rozsekajú medzi čítania. */
+    private static final class TrickleInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private final int max;
+
+        TrickleInputStream(byte[] data, int max) {
+            this.in = new ByteArrayInputStream(data);
+            this.max = max;
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, Math.min(len, max));
+        }
+    }
+
+    /** Každá úloha na vlastnom vlákne; skôr odoslané čakajú dlhšie, takže dobehnú neskôr. */
+    private static final class ReversedDelayExecutor extends AbstractExecutorService {
+        private final AtomicInteger submitted = new AtomicInteger();
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable task) {
+            int n = submitted.getAndIncrement();
+            long delayMs = Math.max(0, 40 - (n % 8) * 5L);
+            Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                task.run();
+            });
+        }
+
+        @Override public void shutdown() { shutdown = true; }
+        @Override public List<Runnable> shutdownNow() { shutdown = true; return List.of(); }
+        @Override public boolean isShutdown() { return shutdown; }
+        @Override public boolean isTerminated() { return shutdown; }
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) { return true; }
+    }
+}
@@ -0,0 +1,122 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.Test;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRollupRow;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * {@link FlightRollupBuilder} proti GROUP BY nad záznamami (ako AGGREGATE_SQL): aj pri čase,
+ * ktorý skáče späť, vznikne každý kôš (level_sec, bucket_start) práve raz s tými istými hodnotami.
+ */
+class FlightRollupBuilderTest {
+
+    @Test
+    void backwardsJitterMergesIntoOpenBucket() {
+        int[] seconds = {100, 101, 102, 99, 110, 103, 119, 120, 109, 121, 160, 130, 181};
+
+        List<FlightRollupRow> rows = run(batch(seconds), 4);
+
+        assertMatchesGroupBy(rows, seconds);
+    }
+
+    @Test
+    void randomJitterMatchesGroupBy() {
+        Random r = new Random(11);
+        int[] seconds = new int[20_000];
+        for (int i = 0; i < seconds.length; i++) {
+            seconds[i] = 9 * 3600 + i / 4 + r.nextInt(41) - 20; // ±20 s okolo 4 Hz priebehu
+        }
+
+        List<FlightRollupRow> rows = run(batch(seconds), 1000);
+
+        assertMatchesGroupBy(rows, seconds);
+    }
+
+    @Test
+    void distantBucketsAreClosedWhileStreaming() {
+        int[] seconds = new int[600];
+        for (int i = 0; i < seconds.length; i++) seconds[i] = 3600 + i;
+        FlightRollupBuilder builder = new FlightRollupBuilder();
+
+        builder.add(batch(seconds), 0, seconds.length);
+
+        // otvorené ostávajú len koše v dosahu REORDER_SEC od posledného záznamu
+        assertThat(builder.pending()).isGreaterThan(600 - FlightRollupBuilder.REORDER_SEC - 2);
+    }
+
+    @Test
+    void flightOverMidnightKeepsBothDays() {
+        int[] seconds = {86_397, 86_398, 86_399, 0, 1, 86_399, 2};
+
+        List<FlightRollupRow> rows = run(batch(seconds), 3);
+
+        assertMatchesGroupBy(rows, seconds);
+    }
+
+    // ---------------- pomocné ----------------
+
+    private static List<FlightRollupRow> run(FlightRecordBatch b, int step) {
+        FlightRollupBuilder builder = new FlightRollupBuilder();
+        List<FlightRollupRow> out = new ArrayList<>();
+        for (int from = 0; from < b.size(); from += step) {
+            builder.add(b, from, Math.min(from + step, b.size()));
+            out.addAll(builder.drain());
+        }
+        builder.finish();
+        out.addAll(builder.drain());
+        return out;
+    }
+
+    private static void assertMatchesGroupBy(List<FlightRollupRow> rows, int[] seconds) {
+        Set<List<Integer>> keys = new HashSet<>();
+        for (FlightRollupRow r : rows) {
+            assertThat(keys.add(List.of(r.levelSec, r.bucketStart)))
+                    .as("duplicate bucket level=%d start=%d", r.levelSec, r.bucketStart).isTrue();
+        }
+
+        for (int level : FlightRollupBuilder.LEVELS) {
+            // GROUP BY FLOOR(sec / level) * level – kanál speedKn = sekunda, altitude = poradie záznamu
+            Map<Integer, List<Integer>> expected = new TreeMap<>();
+            for (int i = 0; i < seconds.length; i++) {
+                expected.computeIfAbsent(seconds[i] - seconds[i] % level, k -> new ArrayList<>()).add(i);
+            }
+            Map<Integer, FlightRollupRow> actual = new TreeMap<>();
+            rows.stream().filter(r -> r.levelSec == level).forEach(r -> actual.put(r.bucketStart, r));
+
+            assertThat(actual.keySet()).as("level %d", level).isEqualTo(expected.keySet());
+            expected.forEach((start, idx) -> {
+                FlightRollupRow r = actual.get(start);
+                assertThat(r.count).isEqualTo(idx.size());
+                int alt = 4;
+                assertThat(r.min[alt]).isEqualTo(idx.stream().mapToInt(Integer::intValue).min().orElseThrow());
+                assertThat(r.max[alt]).isEqualTo(idx.stream().mapToInt(Integer::intValue).max().orElseThrow());
+                assertThat(r.avg[alt]).isCloseTo(idx.stream().mapToInt(Integer::intValue).average().orElseThrow(), within(1e-9));
+            });
+        }
+    }
+
+    private static FlightRecordBatch batch(int[] seconds) {
+        FlightRecordBatch b = new FlightRecordBatch(seconds.length);
+        FlightLogParser.Sample s = new FlightLogParser.Sample();
+        for (int i = 0; i < seconds.length; i++) {
+            s.secondOfDay = seconds[i];
+            s.latitude = Double.NaN;
+            s.longitude = Double.NaN;
+            s.altitudeM = i;
+            s.speedKn = seconds[i];
+            b.add(s);
+        }
+        return b;
+    }
+}
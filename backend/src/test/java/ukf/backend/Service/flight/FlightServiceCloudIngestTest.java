@@ -0,0 +1,292 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ukf.backend.Model.User.User;
+import ukf.backend.Model.User.UserRepository;
+import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Repository.cloud.CloudFlightSyncChunkRepository;
+import ukf.backend.Repository.cloud.CloudFlightSyncRepository;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Repository.flight.FlightRollupJdbcRepository;
+import ukf.backend.Service.cloud.CloudChunkDownloader;
+import ukf.backend.Service.cloud.CloudInboxClient;
+import ukf.backend.Service.cloud.CloudInboxProperties;
+import ukf.backend.Service.cloud.CloudSyncService;
+import ukf.backend.Service.cloud.CloudSyncStateService;
+import ukf.backend.Service.device.DeviceService;
+import ukf.backend.Service.user.UserAnalyticsService;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cloud sync → staging → parser nad H2: chunky sa parsujú ako jeden stream, takže riadok aj
+ * UTF-8 znak rozseknutý medzi dva chunky dopadne rovnako ako v súbore z jedného kusu.
+ * Značka importu sa commitne spolu s letom – zlyhaný ack nevedie k druhému importu.
+ *
+ * Bez testovacej transakcie – chunky ukladajú vlákna downloadera vo vlastných transakciách,
+ * takže dáta sa po každom teste mažú ručne.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({FlightService.class, CloudSyncService.class, CloudSyncStateService.class, CloudChunkDownloader.class})
+@EnableConfigurationProperties(CloudInboxProperties.class)
+class FlightServiceCloudIngestTest {
+
+    private static final String DEVICE = "fdr-1";
+    private static final String HEADER =
+            "Time\tLatitude\tLongitude\tTemperature(C)\tPressure(hPa)\tAltitude(m)\taX(g)\taY(g)\taZ(g)\tTurbulence\tX(deg)\tY(deg)\tZ(deg)\tSpeed(kn)\n";
+
+    @TempDir static Path stagingDir;
+
+    @DynamicPropertySource
+    static void staging(DynamicPropertyRegistry registry) {
+        registry.add("cloud.inbox.staging-dir", () -> stagingDir.toString());
+    }
+
+    @MockitoBean FlightRecordJdbcRepository recordJdbc;
+    @MockitoBean FlightRollupJdbcRepository rollupJdbc;
+    @MockitoBean FlightLookup flightLookup;
+    @MockitoBean FlightPurgeService purgeService;
+    @MockitoBean UserAnalyticsService userAnalytics;
+    @MockitoBean FlightIngestProperties ingestProps;
+    @MockitoBean ExecutorService flightParseExecutor;
+    @MockitoBean CloudInboxClient cloud;
+    @MockitoBean DeviceService deviceService;
+
+    @Autowired CloudSyncService cloudSync;
+    @Autowired CloudSyncStateService syncState;
+    @Autowired FlightService flightService;
+    @Autowired FlightRepository flightRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired CloudFlightSyncRepository syncRepo;
+    @Autowired CloudFlightSyncChunkRepository chunkRepo;
+
+    private User owner;
+    /** Zapísané záznamy podľa id letu: sekunda dňa, latitude, longitude, speedKn. */
+    private final Map<Long, List<List<Object>>> written = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setEmail("cloud-pilot@example.com");
+        owner = userRepo.save(u);
+
+        when(ingestProps.pipeline()).thenReturn(new FlightIngestProperties.Pipeline(false, 1, 8192));
+        when(ingestProps.loadData()).thenReturn(new FlightIngestProperties.LoadData(false, 200_000));
+        doAnswer(inv -> {
+            FlightRecordBatch b = inv.getArgument(1);
+            List<List<Object>> rows = written.computeIfAbsent(inv.getArgument(0), k -> new ArrayList<>());
+            for (int i = 0; i < b.size(); i++) {
+                rows.add(List.of(b.secondOfDay(i), b.latitude(i), b.longitude(i), b.speedKn(i)));
+            }
+            return null;
+        }).when(recordJdbc).insertBatch(anyLong(), any());
+    }
+
+    @Test
+    void lineAndUtf8CharacterSplitAcrossChunksParseLikeWholeFile() throws Exception {
+        String file = HEADER
+                + "09:04:09\t48.284515\t18.129082\t17.74\t1030.16\t135.16\t0.147\t0.001\t1.049\t0.314\t0.07\t-7.98\t82.02\t0.01\n"
+                + "zlý riadok ľščťž\n"
+                + "09:04:10 48.284600 18.129100 17.8 1030.1 136 -0.068 0.034 1.075 0.34 1.82 3.61 85.96 15\r\n"
+                + "09:04:11 48.284700 18.129200 17.9 1030.0 137 0 0 1 0.3 0 0 0 16\n";
+        byte[] bytes = file.getBytes(StandardCharsets.UTF_8);
+
+        int midNumber = indexOf(bytes, "48.2846") + 4;        // "48.2|846..."
+        int midChar = indexOf(bytes, "ľ") + 1;                // medzi 0xC4 a 0xBE
+        int midCrlf = indexOf(bytes, "\r\n") + 1;             // medzi \r a \n
+        int afterTime = indexOf(bytes, "09:04:11") + 3;       // "09:|04:11"
+        List<byte[]> chunks = split(bytes, midNumber, midChar, midCrlf, afterTime);
+
+        Flight whole = sync("whole", List.of(bytes));
+        Flight split = sync("split", chunks);
+
+        assertThat(written.get(split.getId())).isEqualTo(written.get(whole.getId())).hasSize(3);
+        assertThat(written.get(split.getId()).get(1)).containsExactly(9 * 3600 + 4 * 60 + 10, 48.2846, 18.1291, 15.0);
+        assertThat(split.getRecordCount()).isEqualTo(3);
+        assertThat(split.getDistanceKm()).isEqualTo(whole.getDistanceKm());
+    }
+
+    @Test
+    void badLineSplitInsideUtf8CharacterKeepsPreview() throws Exception {
+        String bad = "zlý riadok ľščťž";
+        String file = HEADER
+                + "09:04:09 48.2845 18.1290 17 1030 135 0 0 1 0.3 0 0 0 7\n"
+                + bad + "\n";
+        byte[] bytes = file.getBytes(StandardCharsets.UTF_8);
+
+        List<byte[]> chunks = new ArrayList<>();
+        int start = indexOf(bytes, bad);
+        // každý multibajtový znak riadku rozseknutý na hranici chunku
+        int prev = 0;
+        for (int i = start; i < bytes.length; i++) {
+            if ((bytes[i] & 0xC0) == 0x80) {
+                chunks.add(Arrays.copyOfRange(bytes, prev, i));
+                prev = i;
+            }
+        }
+        chunks.add(Arrays.copyOfRange(bytes, prev, bytes.length));
+        assertThat(chunks).hasSizeGreaterThan(5);
+
+        FlightService.IngestReport report = stageAndIngest("utf8", chunks);
+
+        assertThat(report.recordsSaved()).isEqualTo(1);
+        assertThat(report.badLines()).isEqualTo(1);
+        assertThat(report.firstBadLineNumber()).isEqualTo(3);
+        assertThat(report.firstBadLinePreview()).isEqualTo(bad);
+    }
+
+    @Test
+    void failedAckDoesNotImportFlightTwice() throws Exception {
+        byte[] bytes = (HEADER + "09:04:09 48.2845 18.1290 17 1030 135 0 0 1 0.3 0 0 0 7\n").getBytes(StandardCharsets.UTF_8);
+        inbox("acked-late", List.of(bytes));
+        doThrow(new IllegalStateException("inbox down")).when(cloud).ack(DEVICE, "acked-late");
+
+        assertThatThrownBy(() -> cloudSync.syncDevice(owner, DEVICE)).hasMessage("inbox down");
+
+        // let aj značka importu sú commitnuté spolu
+        List<Flight> flights = flightRepo.findAll();
+        assertThat(flights).hasSize(1);
+        assertThat(syncRepo.findByDeviceIdAndFlightId(DEVICE, "acked-late").orElseThrow().getImportedFlightId())
+                .isEqualTo(flights.get(0).getId());
+
+        doNothing().when(cloud).ack(DEVICE, "acked-late");
+        assertThat(cloudSync.syncDevice(owner, DEVICE).imported()).isEqualTo(1);
+
+        assertThat(flightRepo.findAll()).hasSize(1);
+        assertThat(syncRepo.findByDeviceIdAndFlightId(DEVICE, "acked-late")).isEmpty();
+    }
+
+    @Test
+    void failedIngestLeavesNoImportMarker() throws Exception {
+        inbox("garbage", List.of((HEADER + "not a record\n").getBytes(StandardCharsets.UTF_8)));
+
+        CloudSyncService.CloudSyncResult result = cloudSync.syncDevice(owner, DEVICE);
+
+        assertThat(result.imported()).isZero();
+        assertThat(result.skippedFlightIds()).containsExactly("garbage");
+        assertThat(flightRepo.findAll()).isEmpty();
+        assertThat(syncRepo.findByDeviceIdAndFlightId(DEVICE, "garbage").orElseThrow().getImportedFlightId()).isNull();
+        verify(cloud, never()).ack(any(), any());
+    }
+
+    @Test
+    void invalidFlightDoesNotBlockRestOfDevice() throws Exception {
+        byte[] empty = HEADER.getBytes(StandardCharsets.UTF_8);
+        byte[] good = (HEADER + "09:04:09 48.2845 18.1290 17 1030 135 0 0 1 0.3 0 0 0 7\n").getBytes(StandardCharsets.UTF_8);
+        when(cloud.pendingFlights(DEVICE)).thenReturn(Map.of("pending", List.of(
+                Map.of("flightId", "empty", "chunks", 1),
+                Map.of("flightId", "good", "chunks", 1))));
+        when(cloud.downloadChunk(DEVICE, "empty", CloudChunkDownloader.chunkName(1))).thenReturn(empty);
+        when(cloud.downloadChunk(DEVICE, "good", CloudChunkDownloader.chunkName(1))).thenReturn(good);
+
+        CloudSyncService.CloudSyncResult result = cloudSync.syncDevice(owner, DEVICE);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.skippedFlightIds()).containsExactly("empty");
+        assertThat(flightRepo.findAll()).singleElement()
+                .satisfies(f -> assertThat(f.getName()).isEqualTo("cloud_" + DEVICE + "_good.txt"));
+        verify(cloud).ack(DEVICE, "good");
+        verify(cloud, never()).ack(DEVICE, "empty");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        flightRepo.deleteAll(flightRepo.findAll());
+        chunkRepo.deleteAll();
+        syncRepo.deleteAll();
+        userRepo.delete(owner);
+    }
+
+    // ---------------- pomocné ----------------
+
+    /** Jeden pending let s danými chunkmi v inboxe. */
+    private void inbox(String flightId, List<byte[]> chunks) {
+        when(cloud.pendingFlights(DEVICE)).thenReturn(Map.of("pending", List.of(Map.of("flightId", flightId, "chunks", chunks.size()))));
+        for (int i = 0; i < chunks.size(); i++) {
+            when(cloud.downloadChunk(DEVICE, flightId, CloudChunkDownloader.chunkName(i + 1))).thenReturn(chunks.get(i));
+        }
+    }
+
+    /** To isté, čo robí CloudSyncService, ale vráti report parsera. */
+    private FlightService.IngestReport stageAndIngest(String flightId, List<byte[]> chunks) throws Exception {
+        inbox(flightId, chunks);
+        CloudSyncStateService.StagedFlight staged = syncState.stage(DEVICE, flightId, chunks.size());
+        try (InputStream content = syncState.openStaged(staged)) {
+            return flightService.ingestTextStreamWithReport(flightId + ".txt", content, owner);
+        }
+    }
+
+    /** Jeden pending let s danými chunkmi, sync zariadenia, vráti naimportovaný let. */
+    private Flight sync(String flightId, List<byte[]> chunks) throws Exception {
+        inbox(flightId, chunks);
+
+        CloudSyncService.CloudSyncResult result = cloudSync.syncDevice(owner, DEVICE);
+
+        assertThat(result.imported()).isEqualTo(1);
+        verify(cloud).ack(DEVICE, flightId);
+        return flightRepo.findAll().stream()
+                .filter(f -> f.getName().equals("cloud_" + DEVICE + "_" + flightId + ".txt"))
+                .findFirst().orElseThrow();
+    }
+
+    private static int indexOf(byte[] haystack, String needle) {
+        byte[] n = needle.getBytes(StandardCharsets.UTF_8);
+        outer:
+        for (int i = 0; i + n.length <= haystack.length; i++) {
+            for (int j = 0; j < n.length; j++) {
+                if (haystack[i + j] != n[j]) continue outer;
+            }
+            return i;
+        }
+        throw new IllegalArgumentException(needle);
+    }
+
+    private static List<byte[]> split(byte[] bytes, int... cuts) {
+        List<byte[]> out = new ArrayList<>();
+        int prev = 0;
+        for (int cut : Arrays.stream(cuts).sorted().toArray()) {
+            out.add(Arrays.copyOfRange(bytes, prev, cut));
+            prev = cut;
+        }
+        out.add(Arrays.copyOfRange(bytes, prev, bytes.length));
+        return out;
+    }
+}
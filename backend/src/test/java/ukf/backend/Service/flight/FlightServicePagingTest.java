@@ -0,0 +1,201 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+import ukf.backend.Model.User.User;
+import ukf.backend.Model.User.UserRepository;
+import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightRecord;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
+import ukf.backend.Repository.flight.FlightRecordRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Repository.flight.FlightRollupJdbcRepository;
+import ukf.backend.Service.user.UserAnalyticsService;
+import ukf.backend.dtos.flight.FlightPageDto;
+import ukf.backend.dtos.flight.FlightRecordPageDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset stránkovanie nad H2: prejdenie všetkých stránok musí dať každý riadok práve raz,
+ * v správnom poradí – aj keď má viac riadkov rovnaký čas (a lety bez start_time).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(FlightService.class)
+class FlightServicePagingTest {
+
+    @MockitoBean FlightRecordJdbcRepository recordJdbc;
+    @MockitoBean FlightRollupJdbcRepository rollupJdbc;
+    @MockitoBean FlightLookup flightLookup;
+    @MockitoBean FlightPurgeService purgeService;
+    @MockitoBean UserAnalyticsService userAnalytics;
+    @MockitoBean FlightIngestProperties ingestProps;
+    @MockitoBean ExecutorService flightParseExecutor;
+
+    @Autowired FlightService flightService;
+    @Autowired FlightRepository flightRepo;
+    @Autowired FlightRecordRepository recordRepo;
+    @Autowired UserRepository userRepo;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setEmail("pilot@example.com");
+        owner = userRepo.save(u);
+    }
+
+    // ---------------- záznamy (GET /api/flights/{id}/records/page) ----------------
+
+    @Test
+    void recordPagesVisitEveryRecordOnceInTimeIdOrder() {
+        Flight flight = flight("f", null);
+        // časy mimo poradia id a s duplicitami
+        List<FlightRecord> saved = recordRepo.saveAll(List.of(
+                record(flight, "09:00:03"), record(flight, "09:00:01"), record(flight, "09:00:02"),
+                record(flight, "09:00:01"), record(flight, "09:00:02"), record(flight, "09:00:01"),
+                record(flight, "09:00:04"), record(flight, "09:00:02")));
+
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(FlightRecord::getTime).thenComparing(FlightRecord::getId))
+                .map(FlightRecord::getId)
+                .toList();
+
+        for (int limit = 1; limit <= saved.size() + 1; limit++) {
+            assertThat(recordIds(flight.getId(), null, null, limit)).as("limit %d", limit).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void recordPagesRespectTimeWindow() {
+        Flight flight = flight("f", null);
+        recordRepo.saveAll(List.of(
+                record(flight, "08:59:59"), record(flight, "09:00:00"), record(flight, "09:00:00"),
+                record(flight, "09:00:30"), record(flight, "09:01:00"), record(flight, "09:01:01")));
+
+        List<Long> ids = recordIds(flight.getId(), LocalTime.of(9, 0), LocalTime.of(9, 1), 2);
+
+        assertThat(ids).hasSize(4);
+        assertThat(recordRepo.findAllById(ids)).allSatisfy(r ->
+                assertThat(r.getTime()).isBetween(LocalTime.of(9, 0), LocalTime.of(9, 1)));
+    }
+
+    @Test
+    void recordCursorBeforeWindowStartsAtWindow() {
+        Flight flight = flight("f", null);
+        recordRepo.saveAll(List.of(record(flight, "08:00:00"), record(flight, "10:00:00")));
+
+        FlightRecordPageDto page = flightService.getRecordPage(flight.getId(), LocalTime.of(9, 0), null, "07:00,1", 10);
+
+        assertThat(page.records()).extracting(FlightRecord::getTime).containsExactly(LocalTime.of(10, 0));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void invalidRecordCursorIsBadRequest() {
+        Flight flight = flight("f", null);
+
+        assertThatThrownBy(() -> flightService.getRecordPage(flight.getId(), null, null, "garbage", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private List<Long> recordIds(Long flightId, LocalTime from, LocalTime to, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            FlightRecordPageDto page = flightService.getRecordPage(flightId, from, to, cursor, limit);
+            assertThat(page.records().size()).isLessThanOrEqualTo(limit);
+            page.records().forEach(r -> ids.add(r.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static FlightRecord record(Flight flight, String time) {
+        return FlightRecord.builder().flight(flight).time(LocalTime.parse(time)).latitude(48.0).longitude(18.0).build();
+    }
+
+    // ---------------- lety (GET /api/flights/page) ----------------
+
+    @Test
+    void flightPagesVisitEveryFlightOnceNewestFirstWithUndatedLast() {
+        LocalDateTime t1 = LocalDateTime.of(2026, 5, 1, 9, 0);
+        LocalDateTime t2 = LocalDateTime.of(2026, 5, 2, 9, 0);
+        List<Flight> flights = List.of(
+                flight("a", t1), flight("b", null), flight("c", t2), flight("d", t1),
+                flight("e", null), flight("f", t2), flight("g", t1));
+
+        // iný používateľ a zmazaný let sa nezobrazia
+        User other = new User();
+        other.setEmail("other@example.com");
+        flightRepo.save(Flight.builder().user(userRepo.save(other)).name("x").startTime(t2).build());
+        flightRepo.save(Flight.builder().user(owner).name("deleted").startTime(t2).deletedAt(LocalDateTime.now()).build());
+
+        Comparator<Flight> newestFirst = Comparator
+                .comparing(Flight::getStartTime, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(Flight::getId, Comparator.reverseOrder());
+        List<Long> expected = flights.stream().sorted(newestFirst).map(Flight::getId).toList();
+
+        for (int limit = 1; limit <= flights.size() + 1; limit++) {
+            assertThat(flightIds(null, null, null, limit)).as("limit %d", limit).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void flightDateFilterSkipsUndatedFlights() {
+        flight("a", LocalDateTime.of(2026, 5, 1, 9, 0));
+        Flight inRange = flight("b", LocalDateTime.of(2026, 5, 2, 23, 59));
+        flight("c", null);
+        flight("d", LocalDateTime.of(2026, 5, 3, 0, 0));
+
+        assertThat(flightIds(LocalDate.of(2026, 5, 2), LocalDate.of(2026, 5, 2), null, 1))
+                .containsExactly(inRange.getId());
+    }
+
+    @Test
+    void flightNamePrefixIsNotAPattern() {
+        Flight literal = flight("50%_run", null);
+        flight("50 run", LocalDateTime.of(2026, 5, 1, 9, 0));
+        flight("500 run", null);
+
+        assertThat(flightIds(null, null, "50%_", 10)).containsExactly(literal.getId());
+    }
+
+    private List<Long> flightIds(LocalDate from, LocalDate to, String namePrefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            FlightPageDto page = flightService.getFlightPage(owner.getId(), from, to, namePrefix, null, cursor, limit);
+            assertThat(page.flights().size()).isLessThanOrEqualTo(limit);
+            page.flights().forEach(f -> ids.add(f.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    // ---------------- pomocné ----------------
+
+    private Flight flight(String name, LocalDateTime start) {
+        return flightRepo.save(Flight.builder().user(owner).name(name).startTime(start).build());
+    }
+}
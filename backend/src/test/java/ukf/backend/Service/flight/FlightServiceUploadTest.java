@@ -0,0 +1,246 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ukf.backend.Model.User.User;
+import ukf.backend.Model.User.UserRepository;
+import ukf.backend.Model.flight.Flight;
+import ukf.backend.Model.flight.FlightRecordBatch;
+import ukf.backend.Model.flight.FlightRecordSource;
+import ukf.backend.Model.flight.FlightRollupRow;
+import ukf.backend.Repository.flight.FlightRecordJdbcRepository;
+import ukf.backend.Repository.flight.FlightRepository;
+import ukf.backend.Repository.flight.FlightRollupJdbcRepository;
+import ukf.backend.Service.user.UserAnalyticsService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Upload, ktorý zlyhá v polovici (poškodený .gz až za prvými dávkami), nesmie nechať
+ * v DB rozpracovaný let – IOException musí rollbacknúť celý ingest. Rollupy veľkého letu
+ * (LOAD DATA) sa zapisujú priebežne, nezostávajú v pamäti do konca súboru. Surový upload
+ * beží bez transakcie – rozpracovaný let je skrytý a pri chybe ide na purge.
+ *
+ * Bez testovacej transakcie, aby bolo vidieť skutočný commit/rollback; dáta sa po teste mažú ručne.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(FlightService.class)
+class FlightServiceUploadTest {
+
+    private static final String HEADER =
+            "Time\tLatitude\tLongitude\tTemperature(C)\tPressure(hPa)\tAltitude(m)\taX(g)\taY(g)\taZ(g)\tTurbulence\tX(deg)\tY(deg)\tZ(deg)\tSpeed(kn)\n";
+
+    @MockitoBean FlightRecordJdbcRepository recordJdbc;
+    @MockitoBean FlightRollupJdbcRepository rollupJdbc;
+    @MockitoBean FlightLookup flightLookup;
+    @MockitoBean FlightPurgeService purgeService;
+    @MockitoBean UserAnalyticsService userAnalytics;
+    @MockitoBean FlightIngestProperties ingestProps;
+    @MockitoBean ExecutorService flightParseExecutor;
+
+    @Autowired FlightService flightService;
+    @Autowired FlightRepository flightRepo;
+    @Autowired UserRepository userRepo;
+
+    @TempDir Path spoolDir;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setEmail("upload-pilot@example.com");
+        owner = userRepo.save(u);
+
+        when(ingestProps.upload()).thenReturn(new FlightIngestProperties.Upload(DataSize.ofMegabytes(200), DataSize.ofGigabytes(2)));
+        when(ingestProps.pipeline()).thenReturn(new FlightIngestProperties.Pipeline(false, 1, 8192));
+        when(ingestProps.loadData()).thenReturn(new FlightIngestProperties.LoadData(false, 200_000));
+        when(ingestProps.jobs()).thenReturn(new FlightIngestProperties.Jobs(1, 1, Duration.ofHours(1), spoolDir.toString()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        flightRepo.deleteAll(flightRepo.findAll());
+        userRepo.delete(owner);
+    }
+
+    @Test
+    void truncatedGzipMultipartLeavesNoFlight() {
+        MockMultipartFile file = new MockMultipartFile("file", "flight.txt.gz", "application/gzip", truncatedGzip());
+
+        assertThatThrownBy(() -> flightService.ingestFileWithReport(file, owner)).isInstanceOf(IOException.class);
+
+        // prvé dávky sa zapísali, až potom stream zlyhal
+        verify(recordJdbc, atLeastOnce()).insertBatch(anyLong(), any());
+        assertThat(flightRepo.findAll()).isEmpty();
+    }
+
+    @Test
+    void truncatedGzipLegacyIngestLeavesNoFlight() {
+        MockMultipartFile file = new MockMultipartFile("file", "flight.txt.gz", "application/gzip", truncatedGzip());
+
+        assertThatThrownBy(() -> flightService.ingestFile(file, owner)).isInstanceOf(IOException.class);
+
+        assertThat(flightRepo.findAll()).isEmpty();
+    }
+
+    @Test
+    void truncatedGzipSpooledJobLeavesNoFlight() throws IOException {
+        Path spooled = Files.write(spoolDir.resolve("job.upload"), truncatedGzip());
+
+        assertThatThrownBy(() -> flightService.ingestSpooledFileWithReport("flight.txt.gz", spooled, owner, FlightService.IngestProgress.NONE))
+                .isInstanceOf(IOException.class);
+
+        assertThat(flightRepo.findAll()).isEmpty();
+    }
+
+    @Test
+    void completeGzipIsCommitted() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "flight.txt.gz", "application/gzip", gzip(sampleFile(5000)));
+
+        FlightService.IngestReport report = flightService.ingestFileWithReport(file, owner);
+
+        assertThat(report.recordsSaved()).isEqualTo(5000);
+        assertThat(flightRepo.findAll()).singleElement()
+                .satisfies(f -> assertThat(f.getRecordCount()).isEqualTo(5000));
+    }
+
+    @Test
+    void rawStreamIsParsedOutsideTransaction() throws IOException {
+        boolean[] readInTransaction = new boolean[1];
+        InputStream body = new FilterInputStream(new ByteArrayInputStream(gzip(sampleFile(5000)))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                readInTransaction[0] |= TransactionSynchronizationManager.isActualTransactionActive();
+                return super.read(b, off, len);
+            }
+        };
+
+        FlightService.IngestReport report = flightService.ingestStreamWithReport(
+                "flight.txt.gz", "application/gzip", null, -1, body, owner);
+
+        // pomalý klient nedrží DB spojenie
+        assertThat(readInTransaction[0]).isFalse();
+        assertThat(report.recordsSaved()).isEqualTo(5000);
+        assertThat(flightRepo.findAll()).singleElement().satisfies(f -> {
+            assertThat(f.getRecordCount()).isEqualTo(5000);
+            assertThat(f.getDeletedAt()).isNull();
+        });
+        verify(purgeService, never()).purgeAsync(anyLong());
+    }
+
+    @Test
+    void truncatedRawStreamLeavesFlightHiddenForPurge() {
+        InputStream body = new ByteArrayInputStream(truncatedGzip());
+
+        assertThatThrownBy(() -> flightService.ingestStreamWithReport(
+                "flight.txt.gz", "application/gzip", null, -1, body, owner)).isInstanceOf(IOException.class);
+
+        Flight partial = flightRepo.findAll().get(0);
+        assertThat(partial.getDeletedAt()).isNotNull();
+        assertThat(flightService.findFlightsForUser(owner.getId())).isEmpty();
+        verify(purgeService).purgeAsync(partial.getId());
+    }
+
+    @Test
+    void loadDataPathWritesRollupsWhileStreaming() throws IOException {
+        when(ingestProps.loadData()).thenReturn(new FlightIngestProperties.LoadData(true, 1));
+        when(recordJdbc.isLocalInfileAvailable()).thenReturn(true);
+        List<Integer> rollupWrites = new ArrayList<>();
+        doAnswer(inv -> {
+            List<FlightRollupRow> rows = inv.getArgument(1);
+            rollupWrites.add(rows.size());
+            return null;
+        }).when(rollupJdbc).insertBatch(anyLong(), any());
+        int[] writesDuringLoad = new int[1];
+        doAnswer(inv -> {
+            FlightRecordSource source = inv.getArgument(1);
+            FlightRecordBatch batch = inv.getArgument(2);
+            long rows = 0;
+            do {
+                rows += batch.size();
+                batch.clear();
+            } while (source.fill(batch));
+            rows += batch.size();
+            writesDuringLoad[0] = rollupWrites.size();
+            return rows;
+        }).when(recordJdbc).loadData(anyLong(), any(), any());
+
+        MockMultipartFile file = new MockMultipartFile("file", "flight.txt", "text/plain", sampleFile(20_000));
+        flightService.ingestFileWithReport(file, owner);
+
+        verify(recordJdbc).loadData(anyLong(), any(), any());
+        // 20 000 s letu ≈ 22 300 rollupov – zapisujú sa po dávkach už počas LOAD DATA, nie až na konci
+        assertThat(writesDuringLoad[0]).isGreaterThan(10);
+        // v pamäti najviac prah + rollupy jednej dávky záznamov
+        assertThat(rollupWrites).allMatch(size -> size <= 2000 + 200);
+        assertThat(rollupWrites.stream().mapToInt(Integer::intValue).sum()).isEqualTo(20_000 + 2_000 + 334);
+    }
+
+    // ---------------- vstup ----------------
+
+    /** Platný .gz odseknutý v polovici – GZIPInputStream hodí EOFException až po tisícoch riadkov. */
+    static byte[] truncatedGzip() {
+        byte[] gz = gzip(sampleFile(5000));
+        return Arrays.copyOf(gz, gz.length / 2);
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] sampleFile(int lines) {
+        StringBuilder sb = new StringBuilder(HEADER);
+        for (int i = 0; i < lines; i++) {
+            int t = 9 * 3600 + i;
+            sb.append(String.format("%d:%02d:%02d\t48.%06d\t18.%06d\t17.5\t1030.%d\t%d\t0.1\t-0.2\t1.0\t0.%d\t0\t0\t0\t%d%n",
+                    t / 3600, (t / 60) % 60, t % 60, 284515 + i * 7, 129082 + i * 3, i % 10, 135 + i % 50, i % 10, i % 40));
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
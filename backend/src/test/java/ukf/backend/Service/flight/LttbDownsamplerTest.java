@@ -0,0 +1,139 @@
+package ukf.backend.Service.flight;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streamovaný {@link LttbDownsampler} proti priamočiarej LTTB nad celým poľom (Steinarsson):
+ * rovnaké koše, rovnaké vybrané body, prvý a posledný bod vždy.
+ */
+class LttbDownsamplerTest {
+
+    @Test
+    void shortSeriesPassesThrough() {
+        double[] y = {3, 1, 4, 1, 5};
+
+        LttbDownsampler lttb = run(y, 5);
+
+        assertThat(lttb.values()).containsExactly(y);
+        assertThat(lttb.times()).containsExactly("0", "1", "2", "3", "4");
+    }
+
+    @Test
+    void keepsFirstAndLastPoint() {
+        double[] y = randomWalk(1000, 1);
+
+        LttbDownsampler lttb = run(y, 50);
+
+        assertThat(lttb.values()).hasSize(50);
+        assertThat(lttb.times().get(0)).isEqualTo("0");
+        assertThat(lttb.times().get(49)).isEqualTo("999");
+        assertThat(lttb.values()[0]).isEqualTo(y[0]);
+        assertThat(lttb.values()[49]).isEqualTo(y[999]);
+    }
+
+    @Test
+    void selectsSamePointsAsReferenceLttb() {
+        int[][] cases = {{1000, 50}, {1000, 37}, {102, 52}, {7515, 2000}, {10, 3}, {11, 4}, {5000, 999}};
+        long seed = 7;
+        for (int[] c : cases) {
+            double[] y = randomWalk(c[0], seed++);
+
+            LttbDownsampler lttb = run(y, c[1]);
+
+            List<String> expected = new ArrayList<>();
+            for (int i : reference(y, c[1])) expected.add(Integer.toString(i));
+            assertThat(lttb.times()).as("n=%d threshold=%d", c[0], c[1]).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void keepsSpikeInFlatSeries() {
+        double[] y = new double[500];
+        y[333] = 100;
+
+        LttbDownsampler lttb = run(y, 20);
+
+        assertThat(lttb.times()).contains("333");
+    }
+
+    @Test
+    void skippedPointsKeepIndicesAndEndpoints() {
+        double[] y = randomWalk(400, 3);
+        LttbDownsampler lttb = new LttbDownsampler(y.length, 30);
+        for (int i = 0; i < y.length; i++) {
+            if (i % 7 == 3 || (i > 100 && i < 140)) continue; // null hodnoty, celé prázdne koše
+            lttb.add(i, Integer.toString(i), y[i]);
+        }
+        lttb.finish();
+
+        assertThat(lttb.values().length).isLessThanOrEqualTo(30);
+        assertThat(lttb.times().get(0)).isEqualTo("0");
+        assertThat(lttb.times().get(lttb.times().size() - 1)).isEqualTo("399");
+        assertThat(lttb.times()).noneMatch(t -> {
+            int i = Integer.parseInt(t);
+            return i % 7 == 3 || (i > 100 && i < 140);
+        });
+        assertThat(lttb.times()).isSortedAccordingTo((a, b) -> Integer.parseInt(a) - Integer.parseInt(b));
+    }
+
+    private static LttbDownsampler run(double[] y, int threshold) {
+        LttbDownsampler lttb = new LttbDownsampler(y.length, threshold);
+        for (int i = 0; i < y.length; i++) lttb.add(i, Integer.toString(i), y[i]);
+        lttb.finish();
+        return lttb;
+    }
+
+    private static double[] randomWalk(int n, long seed) {
+        Random r = new Random(seed);
+        double[] y = new double[n];
+        for (int i = 1; i < n; i++) y[i] = y[i - 1] + r.nextGaussian();
+        return y;
+    }
+
+    /** LTTB nad celým poľom; hranice košov floor(i * every) + 1 počítané celočíselne. Vracia indexy. */
+    private static List<Integer> reference(double[] y, int threshold) {
+        int n = y.length;
+        List<Integer> out = new ArrayList<>();
+        if (threshold >= n) {
+            for (int i = 0; i < n; i++) out.add(i);
+            return out;
+        }
+        long span = n - 2, buckets = threshold - 2;
+
+        int a = 0;
+        out.add(a);
+        for (int i = 0; i < buckets; i++) {
+            int avgFrom = (int) ((i + 1) * span / buckets) + 1;
+            int avgTo = Math.min((int) ((i + 2) * span / buckets) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int j = avgFrom; j < avgTo; j++) {
+                avgX += j;
+                avgY += y[j];
+            }
+            avgX /= avgTo - avgFrom;
+            avgY /= avgTo - avgFrom;
+
+            int from = (int) (i * span / buckets) + 1;
+            int to = (int) ((i + 1) * span / buckets) + 1;
+            double maxArea = -1;
+            int next = from;
+            for (int j = from; j < to; j++) {
+                double area = Math.abs((a - avgX) * (y[j] - y[a]) - (a - j) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            out.add(next);
+            a = next;
+        }
+        out.add(n - 1);
+        return out;
+    }
+}